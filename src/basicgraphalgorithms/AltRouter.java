@@ -0,0 +1,293 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest paths with A*, landmarks and the triangle
+ * inequality (ALT). Preprocessing picks k landmarks by farthest selection
+ * and stores the distances from every landmark to every vertex and from
+ * every vertex to every landmark. A query then guides the search with the
+ * lower bound
+ * <pre>
+ *     d(v, t) &gt;= max over L of max(d(L, t) - d(L, v), d(v, L) - d(t, L))
+ * </pre>
+ * so it settles far fewer vertices than plain Dijkstra. Vertices the
+ * bounds prove cannot reach the target are never queued. Like
+ * ShortestPaths, a router reuses its query arrays across queries.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class AltRouter<E extends Comparable<E>> {
+    /**
+     * the graph being searched
+     */
+    private final CsrGraph<E> graph;
+    /**
+     * indices of the landmark vertices
+     */
+    private final int[] landmarks;
+    /**
+     * fromLandmark[i][v] is the distance from landmark i to v
+     */
+    private final double[][] fromLandmark;
+    /**
+     * toLandmark[i][v] is the distance from v to landmark i
+     */
+    private final double[][] toLandmark;
+    /**
+     * tentative distance of each vertex from the source
+     */
+    private final double[] dist;
+    /**
+     * lower bound on the distance of each vertex to the target, or NaN
+     * when it has not been computed for the current query
+     */
+    private final double[] bound;
+    /**
+     * predecessor of each vertex on its shortest path, or -1
+     */
+    private final int[] pred;
+    /**
+     * vertices whose state must be reset before the next query
+     */
+    private final int[] touched;
+    /**
+     * number of entries used in touched
+     */
+    private int touchedCount;
+    /**
+     * number of vertices removed from the queue by the last query
+     */
+    private int settledCount;
+    /**
+     * the priority queue of the search frontier
+     */
+    private final IndexedMinHeap heap;
+    /**
+     * target of the last query, or -1
+     */
+    private int target;
+
+    /**
+     * Preprocesses the specified graph with the specified number of
+     * landmarks
+     *
+     * @param graph         a weighted directed graph with non-negative weights
+     * @param landmarkCount the number of landmarks; it is capped by the
+     *                      number of vertices
+     * @throws GraphException when landmarkCount is not positive
+     */
+    public AltRouter(CsrGraph<E> graph, int landmarkCount) throws GraphException {
+        if (landmarkCount < 1)
+            throw new GraphException("Invalid number of landmarks - AltRouter().");
+        int n = graph.vertexCount();
+        int k = Math.min(landmarkCount, n);
+        this.graph = graph;
+        landmarks = new int[k];
+        fromLandmark = new double[k][];
+        toLandmark = new double[k][];
+        dist = new double[n];
+        bound = new double[n];
+        pred = new int[n];
+        touched = new int[n];
+        heap = new IndexedMinHeap(n);
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(bound, Double.NaN);
+        Arrays.fill(pred, -1);
+        touchedCount = 0;
+        settledCount = 0;
+        target = -1;
+        if (k > 0)
+            selectLandmarks(new ShortestPaths<>(graph), new ShortestPaths<>(graph.transpose()));
+    }
+
+    /**
+     * Chooses each landmark as the vertex farthest from the landmarks
+     * already chosen, starting from the vertex farthest from vertex 0.
+     * Vertices no landmark reaches count as infinitely far, so every
+     * part of a disconnected graph eventually gets a landmark.
+     */
+    private void selectLandmarks(ShortestPaths<E> forward, ShortestPaths<E> backward) throws GraphException {
+        int n = graph.vertexCount();
+        double[] nearest = new double[n];
+        forward.run(0);
+        int next = farthest(forward, null);
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < landmarks.length; i++) {
+            landmarks[i] = next;
+            fromLandmark[i] = new double[n];
+            toLandmark[i] = new double[n];
+            forward.run(next);
+            backward.run(next);
+            for (int v = 0; v < n; v++) {
+                fromLandmark[i][v] = forward.distance(v);
+                toLandmark[i][v] = backward.distance(v);
+                nearest[v] = Math.min(nearest[v], fromLandmark[i][v]);
+            }
+            nearest[next] = -1;
+            next = farthest(forward, nearest);
+        }
+    }
+
+    /**
+     * Gives the vertex with the largest distance, preferring the
+     * smallest index on ties; chosen landmarks are marked with -1.
+     */
+    private int farthest(ShortestPaths<E> search, double[] nearest) {
+        int best = 0;
+        double bestDist = -1;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            double d = nearest == null ? search.distance(v) : nearest[v];
+            if (d > bestDist) {
+                bestDist = d;
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gives the graph searched by this router
+     *
+     * @return the graph of this router
+     */
+    public CsrGraph<E> graph() {
+        return graph;
+    }
+
+    /**
+     * Gives the landmarks chosen by the preprocessing
+     *
+     * @return a copy of the landmark vertex indices
+     */
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Computes the shortest path between two vertices
+     *
+     * @param source index of the source vertex
+     * @param target index of the destination vertex
+     * @return the length of the shortest path, infinite when the target
+     * is not reachable
+     * @throws GraphException when the source or the target does not exist
+     */
+    public double route(int source, int target) throws GraphException {
+        int n = graph.vertexCount();
+        if (source < 0 || source >= n || target < 0 || target >= n)
+            throw new GraphException("Non-existent vertex - route().");
+        reset();
+        this.target = target;
+        settledCount = 0;
+        double h = lowerBound(source);
+        if (h == Double.POSITIVE_INFINITY)
+            return h;
+        dist[source] = 0;
+        heap.push(source, h);
+        while (!heap.isEmpty()) {
+            int v = heap.poll();
+            settledCount++;
+            if (v == target)
+                break;
+            double d = dist[v];
+            for (int e = graph.edgeBegin(v); e < graph.edgeEnd(v); e++) {
+                int w = graph.target(e);
+                double newDist = d + graph.weight(e);
+                if (newDist < dist[w]) {
+                    double hw = lowerBound(w);
+                    if (hw == Double.POSITIVE_INFINITY)
+                        continue;
+                    dist[w] = newDist;
+                    pred[w] = v;
+                  /* an improved vertex is requeued even if it was removed,
+                     which absorbs round-off in the landmark bounds */
+                    heap.push(w, newDist + hw);
+                }
+            }
+        }
+        heap.clear();
+        return dist[target];
+    }
+
+    /**
+     * Gives the vertices along the shortest path found by the last query
+     *
+     * @return the vertex indices from the source to the target, or an
+     * empty array when the target is not reachable
+     */
+    public int[] path() {
+        if (target < 0 || dist[target] == Double.POSITIVE_INFINITY)
+            return new int[0];
+        int count = 1;
+        for (int v = target; pred[v] >= 0; v = pred[v])
+            count++;
+        int[] path = new int[count];
+        for (int v = target; v >= 0; v = pred[v])
+            path[--count] = v;
+        return path;
+    }
+
+    /**
+     * Gives the number of vertices the last query removed from its queue
+     *
+     * @return the number of settled vertices
+     */
+    public int settledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Computes, once per query, the landmark lower bound on the distance
+     * from a vertex to the target of the current query. Every vertex the
+     * query reaches passes through here first, so this is where it is
+     * recorded for the next reset.
+     */
+    private double lowerBound(int v) {
+        if (!Double.isNaN(bound[v]))
+            return bound[v];
+        touch(v);
+        double best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double lt = fromLandmark[i][target];
+            double lv = fromLandmark[i][v];
+            double vl = toLandmark[i][v];
+            double tl = toLandmark[i][target];
+          /* L reaches v but not t, or t reaches L but v does not:
+             either way v cannot reach t */
+            if ((lv < Double.POSITIVE_INFINITY && lt == Double.POSITIVE_INFINITY)
+                    || (tl < Double.POSITIVE_INFINITY && vl == Double.POSITIVE_INFINITY)) {
+                best = Double.POSITIVE_INFINITY;
+                break;
+            }
+            if (lt < Double.POSITIVE_INFINITY && lv < Double.POSITIVE_INFINITY)
+                best = Math.max(best, lt - lv);
+            if (vl < Double.POSITIVE_INFINITY && tl < Double.POSITIVE_INFINITY)
+                best = Math.max(best, vl - tl);
+        }
+        bound[v] = best;
+        return best;
+    }
+
+    /**
+     * Records a vertex whose state the next query must reset
+     */
+    private void touch(int v) {
+        touched[touchedCount++] = v;
+    }
+
+    /**
+     * Restores the state touched by the previous query
+     */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            dist[v] = Double.POSITIVE_INFINITY;
+            bound[v] = Double.NaN;
+            pred[v] = -1;
+        }
+        touchedCount = 0;
+    }
+}
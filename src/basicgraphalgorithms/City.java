@@ -66,6 +66,32 @@ public class City implements Comparable<City> {
         return key.compareTo(another.key);
     }
 
+    /**
+     * Determines whether two cities have the same code
+     *
+     * @param another a reference to an object
+     * @return true when the specified object is a city with the
+     * same code as this city; otherwise, false.
+     */
+    @Override
+    public boolean equals(Object another) {
+        if (this == another)
+            return true;
+        if (!(another instanceof City))
+            return false;
+        return key.equals(((City) another).key);
+    }
+
+    /**
+     * Gives a hash code consistent with compareTo
+     *
+     * @return the hash code of the code for this city
+     */
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
     public String toString() {
         return String.format("(KEY: " + key + ", LABEL: " + label + ")");
     }
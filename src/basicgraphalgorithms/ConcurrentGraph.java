@@ -0,0 +1,262 @@
+package basicgraphalgorithms;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe view of a Graph guarded by a StampedLock. Mutators take the
+ * write lock. size() and isEmpty() only read a single field, so they run
+ * as optimistic reads without any locking and are retried under the
+ * read lock only when a writer intervened. Every other lookup goes
+ * through the hash directory of the graph, a plain HashMap that a
+ * racing writer may be resizing or restructuring, where an unlocked
+ * read could fail in ways no validation catches, even loop forever; so
+ * those lookups, the scans of the whole graph and the traversals run
+ * under the read lock and proceed in parallel with each other.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class ConcurrentGraph<E extends Comparable<E>> implements GraphAPI<E> {
+    /**
+     * the guarded graph
+     */
+    private final Graph<E> graph;
+    /**
+     * guards every access to the graph
+     */
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * A lookup that can be repeated safely.
+     */
+    @FunctionalInterface
+    private interface Read<T> {
+        T get() throws GraphException;
+    }
+
+    /**
+     * Constructs an empty thread-safe graph
+     */
+    public ConcurrentGraph() {
+        this(new Graph<>());
+    }
+
+    /**
+     * Constructs a thread-safe view of a graph, which must no longer be
+     * accessed directly
+     *
+     * @param graph the graph to guard
+     */
+    public ConcurrentGraph(Graph<E> graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Reads a single field optimistically, falling back to the read lock
+     * when a write overlapped it
+     *
+     * @param read the read, which must not follow any reference
+     * @return the value read
+     */
+    private <T> T optimistic(Supplier<T> read) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T result = read.get();
+            if (lock.validate(stamp))
+                return result;
+        }
+        stamp = lock.readLock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a lookup under the read lock
+     *
+     * @param read the lookup
+     * @return the result of the lookup
+     * @throws GraphException when the lookup fails
+     */
+    private <T> T locked(Read<T> read) throws GraphException {
+        long stamp = lock.readLock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a lookup that cannot fail under the read lock
+     */
+    private <T> T lockedQuietly(Read<T> read) {
+        try {
+            return locked(read);
+        } catch (GraphException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Override
+    public void insertVertex(E data) {
+        long stamp = lock.writeLock();
+        try {
+            graph.insertVertex(data);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void deleteVertex(E key) {
+        long stamp = lock.writeLock();
+        try {
+            graph.deleteVertex(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void insertEdge(E fromKey, E toKey, Double weight) {
+        long stamp = lock.writeLock();
+        try {
+            graph.insertEdge(fromKey, toKey, weight);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void insertEdges(E[] fromKeys, E[] toKeys, double[] weights) {
+        long stamp = lock.writeLock();
+        try {
+            graph.insertEdges(fromKeys, toKeys, weights);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void deleteEdge(E fromKey, E toKey) {
+        long stamp = lock.writeLock();
+        try {
+            graph.deleteEdge(fromKey, toKey);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public double retrieveEdge(E fromKey, E toKey) throws GraphException {
+        return locked(() -> graph.retrieveEdge(fromKey, toKey));
+    }
+
+    @Override
+    public E retrieveVertex(E key) throws GraphException {
+        return locked(() -> graph.retrieveVertex(key));
+    }
+
+    /**
+     * Applies the visit function in breadth-first-search order while
+     * holding the read lock, so func must not modify this graph
+     *
+     * @param func - the visit function.
+     */
+    @Override
+    public void bfsTraverse(Function func) {
+        long stamp = lock.readLock();
+        try {
+            graph.bfsTraverse(func);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Applies the visit function in postorder depth-first-search order
+     * while holding the read lock, so func must not modify this graph
+     *
+     * @param func - the visit function.
+     */
+    @Override
+    public void dfsTraverse(Function func) {
+        long stamp = lock.readLock();
+        try {
+            graph.dfsTraverse(func);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return optimistic(graph::isEmpty);
+    }
+
+    @Override
+    public long size() {
+        return optimistic(graph::size);
+    }
+
+    @Override
+    public boolean isVertex(E key) {
+        return lockedQuietly(() -> graph.isVertex(key));
+    }
+
+    @Override
+    public boolean isEdge(E fromKey, E toKey) {
+        return lockedQuietly(() -> graph.isEdge(fromKey, toKey));
+    }
+
+    @Override
+    public boolean isPath(E fromKey, E toKey) {
+        long stamp = lock.readLock();
+        try {
+            return graph.isPath(fromKey, toKey);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long countEdges() {
+        long stamp = lock.readLock();
+        try {
+            return graph.countEdges();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long outDegree(E key) throws GraphException {
+        return locked(() -> graph.outDegree(key));
+    }
+
+    @Override
+    public long inDegree(E key) throws GraphException {
+        return locked(() -> graph.inDegree(key));
+    }
+
+    /**
+     * Takes an immutable snapshot that long-running readers can use
+     * without holding any lock
+     *
+     * @return a snapshot of the current vertices and edges
+     */
+    public CsrGraph<E> freeze() {
+        long stamp = lock.readLock();
+        try {
+            return graph.freeze();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy over a CSR snapshot for fast point-to-point
+ * shortest paths. Preprocessing contracts the vertices one at a time in
+ * the order of a lazily updated priority (edge difference plus contracted
+ * neighbors). Contracting v adds a shortcut u -&gt; w for each path
+ * u -&gt; v -&gt; w unless a bounded witness search finds a path from u to
+ * w, avoiding v, that is no longer. A query runs a bidirectional Dijkstra
+ * that only follows edges towards higher-ranked vertices and unpacks the
+ * shortcuts of the best meeting path back into edges of the graph.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class ContractionHierarchy<E extends Comparable<E>> {
+    /**
+     * number of vertices a witness search may settle before giving up
+     * and adding the shortcut
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    /**
+     * the graph being searched
+     */
+    private final CsrGraph<E> graph;
+    /**
+     * position of each vertex in the contraction order
+     */
+    private final int[] rank;
+    /**
+     * start of the upward out-arcs of each vertex
+     */
+    private int[] upOffsets;
+    /**
+     * head of each upward out-arc
+     */
+    private int[] upTargets;
+    /**
+     * weight of each upward out-arc
+     */
+    private double[] upWeights;
+    /**
+     * vertex bypassed by each upward out-arc, or -1 for an edge of the graph
+     */
+    private int[] upMids;
+    /**
+     * start of the upward in-arcs of each vertex
+     */
+    private int[] downOffsets;
+    /**
+     * tail of each upward in-arc
+     */
+    private int[] downSources;
+    /**
+     * weight of each upward in-arc
+     */
+    private double[] downWeights;
+    /**
+     * vertex bypassed by each upward in-arc, or -1 for an edge of the graph
+     */
+    private int[] downMids;
+    /**
+     * forward and backward search distances
+     */
+    private final double[] distF, distB;
+    /**
+     * forward and backward search predecessors
+     */
+    private final int[] predF, predB;
+    /**
+     * vertices whose forward and backward state must be reset
+     */
+    private final int[] touchedF, touchedB;
+    /**
+     * number of entries used in touchedF and touchedB
+     */
+    private int touchedCountF, touchedCountB;
+    /**
+     * forward and backward priority queues
+     */
+    private final IndexedMinHeap heapF, heapB;
+    /**
+     * vertices of the path being unpacked
+     */
+    private int[] unpacked;
+    /**
+     * number of entries used in unpacked
+     */
+    private int unpackedLength;
+    /**
+     * pending arcs of the path being unpacked, as vertex pairs
+     */
+    private int[] arcStack;
+
+    /**
+     * The arcs incident to a vertex while the hierarchy is being built.
+     */
+    private static class ArcList {
+        /**
+         * number of arcs in the list
+         */
+        int size;
+        /**
+         * the other endpoint of each arc
+         */
+        int[] other = new int[4];
+        /**
+         * weight of each arc
+         */
+        double[] weight = new double[4];
+        /**
+         * vertex bypassed by each arc, or -1 for an edge of the graph
+         */
+        int[] mid = new int[4];
+
+        /**
+         * Adds an arc, or shortens the existing arc to the same vertex
+         */
+        void put(int v, double w, int m) {
+            for (int i = 0; i < size; i++) {
+                if (other[i] == v) {
+                    if (w < weight[i]) {
+                        weight[i] = w;
+                        mid[i] = m;
+                    }
+                    return;
+                }
+            }
+            if (size == other.length) {
+                other = Arrays.copyOf(other, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                mid = Arrays.copyOf(mid, size * 2);
+            }
+            other[size] = v;
+            weight[size] = w;
+            mid[size] = m;
+            size++;
+        }
+    }
+
+    /**
+     * Contracts the vertices of the specified graph
+     *
+     * @param graph a weighted directed graph with non-negative weights
+     */
+    public ContractionHierarchy(CsrGraph<E> graph) {
+        int n = graph.vertexCount();
+        this.graph = graph;
+        rank = new int[n];
+        distF = new double[n];
+        distB = new double[n];
+        predF = new int[n];
+        predB = new int[n];
+        touchedF = new int[n];
+        touchedB = new int[n];
+        heapF = new IndexedMinHeap(n);
+        heapB = new IndexedMinHeap(n);
+        Arrays.fill(distF, Double.POSITIVE_INFINITY);
+        Arrays.fill(distB, Double.POSITIVE_INFINITY);
+        Arrays.fill(predF, -1);
+        Arrays.fill(predB, -1);
+        unpacked = new int[16];
+        arcStack = new int[16];
+        new Builder().build();
+    }
+
+    /**
+     * The state of the preprocessing, dropped once the hierarchy is built.
+     */
+    private class Builder {
+        /**
+         * out-arcs and in-arcs of every vertex, shortcuts included
+         */
+        final ArcList[] out, in;
+        /**
+         * whether a vertex has been contracted
+         */
+        final boolean[] contracted;
+        /**
+         * number of contracted neighbors of each vertex
+         */
+        final int[] contractedNeighbors;
+        /**
+         * witness search distances, reset through touched
+         */
+        final double[] witnessDist;
+        /**
+         * vertices reached by the current witness search
+         */
+        final int[] touched;
+        /**
+         * number of entries used in touched
+         */
+        int touchedCount;
+        /**
+         * witness search queue
+         */
+        final IndexedMinHeap witnessHeap;
+
+        Builder() {
+            int n = graph.vertexCount();
+            out = new ArcList[n];
+            in = new ArcList[n];
+            for (int v = 0; v < n; v++) {
+                out[v] = new ArcList();
+                in[v] = new ArcList();
+            }
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.edgeBegin(v); e < graph.edgeEnd(v); e++) {
+                    int w = graph.target(e);
+                    if (w == v)
+                        continue;
+                    out[v].put(w, graph.weight(e), -1);
+                    in[w].put(v, graph.weight(e), -1);
+                }
+            }
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            witnessDist = new double[n];
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+            touched = new int[n];
+            touchedCount = 0;
+            witnessHeap = new IndexedMinHeap(n);
+        }
+
+        /**
+         * Contracts every vertex and collects the upward arcs
+         */
+        void build() {
+            int n = graph.vertexCount();
+            IndexedMinHeap order = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++)
+                order.push(v, priority(v));
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+              /* lazy update: requeue v when its priority went stale */
+                double p = priority(v);
+                if (!order.isEmpty() && p > order.peekKey()) {
+                    order.push(v, p);
+                    continue;
+                }
+                contract(v, false);
+                contracted[v] = true;
+                rank[v] = next++;
+                for (int i = 0; i < out[v].size; i++)
+                    contractedNeighbors[out[v].other[i]]++;
+                for (int i = 0; i < in[v].size; i++)
+                    contractedNeighbors[in[v].other[i]]++;
+            }
+            collectUpwardArcs();
+        }
+
+        /**
+         * Gives the contraction priority of a vertex; smaller goes first
+         */
+        double priority(int v) {
+            int degree = 0;
+            for (int i = 0; i < out[v].size; i++)
+                if (!contracted[out[v].other[i]])
+                    degree++;
+            for (int i = 0; i < in[v].size; i++)
+                if (!contracted[in[v].other[i]])
+                    degree++;
+            return contract(v, true) - degree + contractedNeighbors[v];
+        }
+
+        /**
+         * Finds the shortcuts needed to contract a vertex
+         *
+         * @param v        the vertex to contract
+         * @param simulate when true the shortcuts are only counted
+         * @return the number of shortcuts
+         */
+        int contract(int v, boolean simulate) {
+            int shortcuts = 0;
+            ArcList ins = in[v];
+            ArcList outs = out[v];
+            for (int i = 0; i < ins.size; i++) {
+                int u = ins.other[i];
+                if (contracted[u])
+                    continue;
+                double toV = ins.weight[i];
+                double limit = -1;
+                for (int j = 0; j < outs.size; j++)
+                    if (!contracted[outs.other[j]] && outs.other[j] != u)
+                        limit = Math.max(limit, toV + outs.weight[j]);
+                if (limit < 0)
+                    continue;
+                witnessSearch(u, v, limit);
+                for (int j = 0; j < outs.size; j++) {
+                    int w = outs.other[j];
+                    if (contracted[w] || w == u)
+                        continue;
+                    double viaV = toV + outs.weight[j];
+                    if (witnessDist[w] <= viaV)
+                        continue;
+                    shortcuts++;
+                    if (!simulate) {
+                        out[u].put(w, viaV, v);
+                        in[w].put(u, viaV, v);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Runs a Dijkstra search from u among the uncontracted vertices
+         * other than v, up to the specified distance
+         */
+        void witnessSearch(int u, int v, double limit) {
+            for (int i = 0; i < touchedCount; i++)
+                witnessDist[touched[i]] = Double.POSITIVE_INFINITY;
+            touchedCount = 0;
+            witnessDist[u] = 0;
+            touched[touchedCount++] = u;
+            witnessHeap.push(u, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                if (witnessHeap.peekKey() > limit)
+                    break;
+                int x = witnessHeap.poll();
+                settled++;
+                ArcList arcs = out[x];
+                for (int i = 0; i < arcs.size; i++) {
+                    int y = arcs.other[i];
+                    if (y == v || contracted[y])
+                        continue;
+                    double d = witnessDist[x] + arcs.weight[i];
+                    if (d < witnessDist[y]) {
+                        if (witnessDist[y] == Double.POSITIVE_INFINITY)
+                            touched[touchedCount++] = y;
+                        witnessDist[y] = d;
+                        witnessHeap.push(y, d);
+                    }
+                }
+            }
+            witnessHeap.clear();
+        }
+
+        /**
+         * Stores the arcs leading to higher-ranked vertices in CSR form
+         */
+        void collectUpwardArcs() {
+            int n = graph.vertexCount();
+            upOffsets = new int[n + 1];
+            downOffsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                int ups = 0;
+                int downs = 0;
+                for (int i = 0; i < out[v].size; i++)
+                    if (rank[out[v].other[i]] > rank[v])
+                        ups++;
+                for (int i = 0; i < in[v].size; i++)
+                    if (rank[in[v].other[i]] > rank[v])
+                        downs++;
+                upOffsets[v + 1] = upOffsets[v] + ups;
+                downOffsets[v + 1] = downOffsets[v] + downs;
+            }
+            upTargets = new int[upOffsets[n]];
+            upWeights = new double[upOffsets[n]];
+            upMids = new int[upOffsets[n]];
+            downSources = new int[downOffsets[n]];
+            downWeights = new double[downOffsets[n]];
+            downMids = new int[downOffsets[n]];
+            for (int v = 0; v < n; v++) {
+                int a = upOffsets[v];
+                for (int i = 0; i < out[v].size; i++) {
+                    if (rank[out[v].other[i]] > rank[v]) {
+                        upTargets[a] = out[v].other[i];
+                        upWeights[a] = out[v].weight[i];
+                        upMids[a] = out[v].mid[i];
+                        a++;
+                    }
+                }
+                a = downOffsets[v];
+                for (int i = 0; i < in[v].size; i++) {
+                    if (rank[in[v].other[i]] > rank[v]) {
+                        downSources[a] = in[v].other[i];
+                        downWeights[a] = in[v].weight[i];
+                        downMids[a] = in[v].mid[i];
+                        a++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives the graph searched by this hierarchy
+     *
+     * @return the graph of this hierarchy
+     */
+    public CsrGraph<E> graph() {
+        return graph;
+    }
+
+    /**
+     * Gives the number of shortcuts added by the preprocessing
+     *
+     * @return the number of upward arcs that are not edges of the graph
+     */
+    public int shortcutCount() {
+        int count = 0;
+        for (int m : upMids)
+            if (m >= 0)
+                count++;
+        for (int m : downMids)
+            if (m >= 0)
+                count++;
+        return count;
+    }
+
+    /**
+     * Computes the shortest path between two vertices
+     *
+     * @param source index of the source vertex
+     * @param target index of the destination vertex
+     * @return the route from the source to the target; it does not
+     * exist when the target is not reachable
+     * @throws GraphException when the source or the target does not exist
+     */
+    public Route<E> query(int source, int target) throws GraphException {
+        int n = graph.vertexCount();
+        if (source < 0 || source >= n || target < 0 || target >= n)
+            throw new GraphException("Non-existent vertex - query().");
+        reset();
+        distF[source] = 0;
+        touchedF[touchedCountF++] = source;
+        heapF.push(source, 0);
+        distB[target] = 0;
+        touchedB[touchedCountB++] = target;
+        heapB.push(target, 0);
+        double best = source == target ? 0 : Double.POSITIVE_INFINITY;
+        int meet = source == target ? source : -1;
+        while (!heapF.isEmpty() || !heapB.isEmpty()) {
+            double minF = heapF.isEmpty() ? Double.POSITIVE_INFINITY : heapF.peekKey();
+            double minB = heapB.isEmpty() ? Double.POSITIVE_INFINITY : heapB.peekKey();
+            if (Math.min(minF, minB) >= best)
+                break;
+            if (minF <= minB) {
+                int v = heapF.poll();
+                if (distF[v] + distB[v] < best) {
+                    best = distF[v] + distB[v];
+                    meet = v;
+                }
+                for (int a = upOffsets[v]; a < upOffsets[v + 1]; a++) {
+                    int w = upTargets[a];
+                    double d = distF[v] + upWeights[a];
+                    if (d < distF[w]) {
+                        if (distF[w] == Double.POSITIVE_INFINITY)
+                            touchedF[touchedCountF++] = w;
+                        distF[w] = d;
+                        predF[w] = v;
+                        heapF.push(w, d);
+                    }
+                }
+            } else {
+                int v = heapB.poll();
+                if (distF[v] + distB[v] < best) {
+                    best = distF[v] + distB[v];
+                    meet = v;
+                }
+                for (int a = downOffsets[v]; a < downOffsets[v + 1]; a++) {
+                    int u = downSources[a];
+                    double d = distB[v] + downWeights[a];
+                    if (d < distB[u]) {
+                        if (distB[u] == Double.POSITIVE_INFINITY)
+                            touchedB[touchedCountB++] = u;
+                        distB[u] = d;
+                        predB[u] = v;
+                        heapB.push(u, d);
+                    }
+                }
+            }
+        }
+        heapF.clear();
+        heapB.clear();
+        if (meet < 0)
+            return new Route<>(graph, new int[0], Double.POSITIVE_INFINITY);
+        return new Route<>(graph, unpack(meet), best);
+    }
+
+    /**
+     * Expands the hierarchy path through the meeting vertex into the
+     * vertices of the graph
+     */
+    private int[] unpack(int meet) {
+        int hops = 0;
+        for (int v = meet; predF[v] >= 0; v = predF[v])
+            hops++;
+        int[] upward = new int[hops + 1];
+        for (int v = meet, i = hops; v >= 0; v = predF[v], i--)
+            upward[i] = v;
+        unpackedLength = 0;
+        append(upward[0]);
+        for (int i = 0; i + 1 < upward.length; i++)
+            unpackArc(upward[i], upward[i + 1]);
+        for (int v = meet; predB[v] >= 0; v = predB[v])
+            unpackArc(v, predB[v]);
+        return Arrays.copyOf(unpacked, unpackedLength);
+    }
+
+    /**
+     * Appends the vertices after a on the edges the arc a -&gt; b stands for
+     */
+    private void unpackArc(int a, int b) {
+        int top = 0;
+        arcStack[top++] = a;
+        arcStack[top++] = b;
+        while (top > 0) {
+            int y = arcStack[--top];
+            int x = arcStack[--top];
+            int mid = midOf(x, y);
+            if (mid < 0) {
+                append(y);
+            } else {
+                if (top + 4 > arcStack.length)
+                    arcStack = Arrays.copyOf(arcStack, arcStack.length * 2);
+              /* x -> mid is expanded first, so it goes on top */
+                arcStack[top++] = mid;
+                arcStack[top++] = y;
+                arcStack[top++] = x;
+                arcStack[top++] = mid;
+            }
+        }
+    }
+
+    /**
+     * Adds a vertex at the end of the path being unpacked
+     */
+    private void append(int v) {
+        if (unpackedLength == unpacked.length)
+            unpacked = Arrays.copyOf(unpacked, unpackedLength * 2);
+        unpacked[unpackedLength++] = v;
+    }
+
+    /**
+     * Gives the vertex bypassed by the arc x -&gt; y of the hierarchy
+     */
+    private int midOf(int x, int y) {
+        if (rank[y] > rank[x]) {
+            for (int a = upOffsets[x]; a < upOffsets[x + 1]; a++)
+                if (upTargets[a] == y)
+                    return upMids[a];
+        } else {
+            for (int a = downOffsets[y]; a < downOffsets[y + 1]; a++)
+                if (downSources[a] == x)
+                    return downMids[a];
+        }
+        throw new IllegalStateException("Missing hierarchy arc - midOf().");
+    }
+
+    /**
+     * Restores the state touched by the previous query
+     */
+    private void reset() {
+        for (int i = 0; i < touchedCountF; i++) {
+            distF[touchedF[i]] = Double.POSITIVE_INFINITY;
+            predF[touchedF[i]] = -1;
+        }
+        for (int i = 0; i < touchedCountB; i++) {
+            distB[touchedB[i]] = Double.POSITIVE_INFINITY;
+            predB[touchedB[i]] = -1;
+        }
+        touchedCountF = 0;
+        touchedCountB = 0;
+    }
+}
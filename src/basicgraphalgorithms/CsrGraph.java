@@ -0,0 +1,384 @@
+package basicgraphalgorithms;
+
+import java.util.function.Function;
+
+/**
+ * Immutable compressed sparse row (CSR) representation of a weighted
+ * digraph. The vertices are numbered 0 to n - 1 in increasing key order
+ * and the out-edges of vertex v occupy positions offsets[v] to
+ * offsets[v + 1] - 1 of the targets and weights arrays, in the same
+ * order as the edge lists of the graph the snapshot was taken from.
+ * Besides the key-based operations of the GraphAPI, the index-based
+ * accessors let algorithms scan adjacency without any allocation.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class CsrGraph<E extends Comparable<E>> implements GraphAPI<E> {
+    /**
+     * the data items in increasing key order
+     */
+    private final E[] vertices;
+    /**
+     * start of the out-edges of each vertex; offsets[n] is the edge count
+     */
+    private final int[] offsets;
+    /**
+     * destination vertex of each edge
+     */
+    private final int[] targets;
+    /**
+     * weight on each edge
+     */
+    private final double[] weights;
+    /**
+     * in-degree of each vertex
+     */
+    private final int[] inDeg;
+
+    /**
+     * Constructs a snapshot over the specified arrays, which are
+     * owned by the snapshot from now on.
+     *
+     * @param vertices the data items in increasing key order
+     * @param offsets  start of the out-edges of each vertex
+     * @param targets  destination vertex of each edge
+     * @param weights  weight on each edge
+     */
+    CsrGraph(E[] vertices, int[] offsets, int[] targets, double[] weights) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        inDeg = new int[vertices.length];
+        for (int i = 0; i < targets.length; i++)
+            inDeg[targets[i]]++;
+    }
+
+    /**
+     * Creates an array for the keys of a snapshot. Its runtime type is
+     * Comparable[] rather than E[], which is safe because key arrays
+     * stay private to the classes of this package and are only read
+     * and written element by element, never handed out as E[].
+     *
+     * @param length the number of keys
+     * @return an array of length nulls
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Comparable<E>> E[] newKeyArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
+    /*===> BEGIN: Index-based accessors <===*/
+
+    /**
+     * Gives the number of vertices of this graph
+     *
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Gives the number of edges of this graph
+     *
+     * @return the number of edges
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gives the index of the vertex with the specified key
+     *
+     * @param key search key of the vertex
+     * @return the index of the vertex, or -1 when the key does not exist
+     */
+    public int indexOf(E key) {
+        int low = 0;
+        int high = vertices.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = key.compareTo(vertices[mid]);
+            if (cmp > 0)
+                low = mid + 1;
+            else if (cmp < 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Gives the data item stored in the vertex with the specified index
+     *
+     * @param v a vertex index
+     * @return the data item of the vertex
+     */
+    public E vertexAt(int v) {
+        return vertices[v];
+    }
+
+    /**
+     * Gives the position of the first out-edge of a vertex
+     *
+     * @param v a vertex index
+     * @return the position of the first out-edge of v
+     */
+    public int edgeBegin(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * Gives the position just past the last out-edge of a vertex
+     *
+     * @param v a vertex index
+     * @return the position following the last out-edge of v
+     */
+    public int edgeEnd(int v) {
+        return offsets[v + 1];
+    }
+
+    /**
+     * Gives the destination of an edge
+     *
+     * @param e an edge position
+     * @return the index of the destination vertex
+     */
+    public int target(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Gives the weight of an edge
+     *
+     * @param e an edge position
+     * @return the weight on the edge
+     */
+    public double weight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Gives the position of the edge between two vertices
+     *
+     * @param from index of the originating vertex
+     * @param to   index of the destination vertex
+     * @return the position of the edge, or -1 when there is no such edge
+     */
+    public int edgeIndex(int from, int to) {
+        for (int e = offsets[from]; e < offsets[from + 1]; e++)
+            if (targets[e] == to)
+                return e;
+        return -1;
+    }
+
+    /**
+     * Builds the transpose of this graph, that is a graph with the same
+     * vertices whose edges are reversed. The in-edges of each vertex of
+     * the transpose are ordered by originating vertex.
+     *
+     * @return the transpose of this graph
+     */
+    public CsrGraph<E> transpose() {
+        int n = vertices.length;
+        int[] tOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++)
+            tOffsets[v + 1] = tOffsets[v] + inDeg[v];
+        int[] fill = new int[n];
+        System.arraycopy(tOffsets, 0, fill, 0, n);
+        int[] tTargets = new int[targets.length];
+        double[] tWeights = new double[weights.length];
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int pos = fill[targets[e]]++;
+                tTargets[pos] = v;
+                tWeights[pos] = weights[e];
+            }
+        }
+        return new CsrGraph<>(vertices, tOffsets, tTargets, tWeights);
+    }
+
+    /*===> END: Index-based accessors <===*/
+
+    @Override
+    public void insertVertex(E data) {
+        throw new UnsupportedOperationException("Immutable graph - insertVertex().");
+    }
+
+    @Override
+    public void deleteVertex(E key) {
+        throw new UnsupportedOperationException("Immutable graph - deleteVertex().");
+    }
+
+    @Override
+    public void insertEdge(E fromKey, E toKey, Double weight) {
+        throw new UnsupportedOperationException("Immutable graph - insertEdge().");
+    }
+
+    @Override
+    public void insertEdges(E[] fromKeys, E[] toKeys, double[] weights) {
+        throw new UnsupportedOperationException("Immutable graph - insertEdges().");
+    }
+
+    @Override
+    public void deleteEdge(E fromKey, E toKey) {
+        throw new UnsupportedOperationException("Immutable graph - deleteEdge().");
+    }
+
+    @Override
+    public double retrieveEdge(E fromKey, E toKey) throws GraphException {
+        int from = indexOf(fromKey);
+        int to = indexOf(toKey);
+        if (from < 0 || to < 0)
+            throw new GraphException("Non-existent edge - retrieveEdge().");
+        int e = edgeIndex(from, to);
+        if (e < 0)
+            throw new GraphException("Non-existent edge - retrieveEdge().");
+        return weights[e];
+    }
+
+    @Override
+    public E retrieveVertex(E key) throws GraphException {
+        int v = indexOf(key);
+        if (v < 0)
+            throw new GraphException("Non-existent vertex - retrieveVertex().");
+        return vertices[v];
+    }
+
+    @Override
+    public void bfsTraverse(Function func) {
+        int n = vertices.length;
+        boolean[] seen = new boolean[n];
+        int[] queue = new int[n];
+        for (int s = 0; s < n; s++) {
+            if (seen[s])
+                continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = s;
+            seen[s] = true;
+            while (head < tail) {
+                int v = queue[head++];
+                func.apply(vertices[v]);
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int w = targets[e];
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dfsTraverse(Function func) {
+        int n = vertices.length;
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        for (int s = 0; s < n; s++) {
+            if (seen[s])
+                continue;
+            int top = 0;
+            stack[0] = s;
+            cursor[0] = offsets[s];
+            seen[s] = true;
+            while (top >= 0) {
+                int v = stack[top];
+                int e = cursor[top];
+                while (e < offsets[v + 1] && seen[targets[e]])
+                    e++;
+                if (e < offsets[v + 1]) {
+                    int w = targets[e];
+                    cursor[top] = e + 1;
+                    seen[w] = true;
+                    top++;
+                    stack[top] = w;
+                    cursor[top] = offsets[w];
+                } else {
+                    func.apply(vertices[v]);
+                    top--;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return vertices.length == 0;
+    }
+
+    @Override
+    public long size() {
+        return vertices.length;
+    }
+
+    @Override
+    public boolean isVertex(E key) {
+        return indexOf(key) >= 0;
+    }
+
+    /*===> BEGIN: Augmented ADT methods <===*/
+    @Override
+    public boolean isEdge(E fromKey, E toKey) {
+        int from = indexOf(fromKey);
+        int to = indexOf(toKey);
+        return from >= 0 && to >= 0 && edgeIndex(from, to) >= 0;
+    }
+
+    @Override
+    public boolean isPath(E fromKey, E toKey) {
+        int from = indexOf(fromKey);
+        int to = indexOf(toKey);
+        if (from < 0 || to < 0)
+            return false;
+        if (from == to)
+            return true;
+        boolean[] seen = new boolean[vertices.length];
+        int[] queue = new int[vertices.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        seen[from] = true;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (w == to)
+                    return true;
+                if (!seen[w]) {
+                    seen[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long countEdges() {
+        return targets.length;
+    }
+
+    /*===> END: Augmented ADT methods <===*/
+    @Override
+    public long outDegree(E key) throws GraphException {
+        int v = indexOf(key);
+        if (v < 0)
+            throw new GraphException("Non-existent vertex - outDegree().");
+        return offsets[v + 1] - offsets[v];
+    }
+
+    @Override
+    public long inDegree(E key) throws GraphException {
+        int v = indexOf(key);
+        if (v < 0)
+            throw new GraphException("Non-existent vertex - inDegree().");
+        return inDeg[v];
+    }
+}
@@ -0,0 +1,127 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets of the integers 0 to n - 1 with union by rank and path
+ * halving, so any sequence of operations runs in near-constant amortized
+ * time per operation. New singleton sets can be added at any time.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+class DisjointSet {
+    /**
+     * parent of each element; a root is its own parent
+     */
+    private int[] parent;
+    /**
+     * upper bound on the height of the tree of each root
+     */
+    private byte[] rank;
+    /**
+     * number of elements
+     */
+    private int size;
+    /**
+     * number of disjoint sets
+     */
+    private int count;
+
+    /**
+     * Creates n singleton sets
+     *
+     * @param n the number of elements
+     */
+    DisjointSet(int n) {
+        parent = new int[n];
+        rank = new byte[n];
+        for (int i = 0; i < n; i++)
+            parent[i] = i;
+        size = n;
+        count = n;
+    }
+
+    /**
+     * Gives the number of elements
+     *
+     * @return the number of elements
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds an element in a set of its own, growing the arrays when they
+     * are full
+     *
+     * @return the new element, which is the previous size
+     */
+    int add() {
+        if (size == parent.length) {
+            parent = Arrays.copyOf(parent, Math.max(16, 2 * size));
+            rank = Arrays.copyOf(rank, parent.length);
+        }
+        parent[size] = size;
+        count++;
+        return size++;
+    }
+
+    /**
+     * Gives the number of disjoint sets
+     *
+     * @return the number of sets
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Finds the representative of the set of an element
+     *
+     * @param v an element
+     * @return the root of the tree of v
+     */
+    int find(int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Merges the sets of two elements
+     *
+     * @param a an element
+     * @param b an element
+     * @return true when the sets were distinct; otherwise, false.
+     */
+    boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb)
+            return false;
+        if (rank[ra] < rank[rb]) {
+            int tmp = ra;
+            ra = rb;
+            rb = tmp;
+        }
+        parent[rb] = ra;
+        if (rank[ra] == rank[rb])
+            rank[ra]++;
+        count--;
+        return true;
+    }
+
+    /**
+     * Determines whether two elements are in the same set
+     *
+     * @param a an element
+     * @param b an element
+     * @return true when a and b are in the same set; otherwise, false.
+     */
+    boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+}
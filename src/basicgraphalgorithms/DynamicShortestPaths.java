@@ -0,0 +1,339 @@
+package basicgraphalgorithms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Shortest paths from one source that are kept up to date while the
+ * graph changes, in the manner of Ramalingam and Reps. The engine
+ * listens to its graph and repairs the shortest-path tree after every
+ * edge change instead of recomputing it. An insertion or a lighter
+ * weight runs Dijkstra's algorithm only from the vertices whose
+ * distance drops. A deletion or a heavier weight on a tree edge first
+ * collects the subtree below it; every vertex of that subtree gets the
+ * best distance offered by its in-edges from outside, and Dijkstra's
+ * algorithm then settles the subtree alone. Either way the work is
+ * proportional to the vertices whose distance or predecessor changes
+ * and their edges. The edge weights must be non-negative.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class DynamicShortestPaths<E extends Comparable<E>> implements GraphListener<E> {
+    /**
+     * the graph whose shortest paths are maintained
+     */
+    private final Graph<E> graph;
+    /**
+     * key of the source vertex
+     */
+    private final E source;
+    /**
+     * state of each vertex by key
+     */
+    private final HashMap<E, Label> labels = new HashMap<>();
+    /**
+     * the vertex owning each heap slot
+     */
+    private final ArrayList<Label> slots;
+    /**
+     * slots of deleted vertices, reused by later insertions
+     */
+    private int[] freeSlots;
+    /**
+     * number of reusable slots
+     */
+    private int freeCount;
+    /**
+     * the priority queue of the vertices whose distance dropped
+     */
+    private IndexedMinHeap heap;
+    /**
+     * number of slots the heap can hold
+     */
+    private int heapCapacity;
+    /**
+     * number of the current repair, used to mark the affected subtree
+     */
+    private int epoch;
+
+    /**
+     * The distance and tree predecessor of a vertex.
+     */
+    private class Label {
+        /**
+         * the data of the vertex
+         */
+        final E data;
+        /**
+         * heap slot of the vertex
+         */
+        final int slot;
+        /**
+         * length of a shortest path from the source
+         */
+        double dist = Double.POSITIVE_INFINITY;
+        /**
+         * predecessor on the shortest path, or null
+         */
+        Label pred;
+        /**
+         * repair in which the vertex was last found affected
+         */
+        int mark;
+
+        Label(E data, int slot) {
+            this.data = data;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Computes the shortest paths from a source and starts maintaining
+     * them; the engine stays registered with the graph until close() is
+     * called
+     *
+     * @param graph  a weighted directed graph with non-negative weights
+     * @param source search key of the source vertex
+     * @throws GraphException when the source does not exist
+     */
+    public DynamicShortestPaths(Graph<E> graph, E source) throws GraphException {
+        this.graph = graph;
+        this.source = graph.retrieveVertex(source);
+        int n = (int) Math.max(16, graph.size());
+        slots = new ArrayList<>(n);
+        heap = new IndexedMinHeap(n);
+        heapCapacity = n;
+        freeSlots = new int[0];
+        CsrGraph<E> snapshot = graph.freeze();
+        for (int v = 0; v < snapshot.vertexCount(); v++)
+            addLabel(snapshot.vertexAt(v));
+        Label s = labels.get(this.source);
+        s.dist = 0;
+        heap.push(s.slot, 0);
+        settle();
+        graph.addListener(this);
+    }
+
+    /**
+     * Stops maintaining the shortest paths; the results are frozen at
+     * the last change seen
+     */
+    public void close() {
+        graph.removeListener(this);
+    }
+
+    /**
+     * Gives the key of the source vertex
+     *
+     * @return the source
+     */
+    public E source() {
+        return source;
+    }
+
+    /**
+     * Gives the distance of a vertex from the source
+     *
+     * @param key search key of a vertex
+     * @return the length of a shortest path, infinite when the vertex
+     * is not reachable
+     * @throws GraphException when the vertex does not exist
+     */
+    public double distance(E key) throws GraphException {
+        return label(key, "distance()").dist;
+    }
+
+    /**
+     * Gives the predecessor of a vertex on its shortest path
+     *
+     * @param key search key of a vertex
+     * @return the data of the predecessor, or null for the source and
+     * unreachable vertices
+     * @throws GraphException when the vertex does not exist
+     */
+    public E predecessor(E key) throws GraphException {
+        Label pred = label(key, "predecessor()").pred;
+        return pred == null ? null : pred.data;
+    }
+
+    /**
+     * Gives the vertices along the shortest path to a target
+     *
+     * @param target search key of the destination vertex
+     * @return the data of the vertices from the source to the target,
+     * or an empty list when the target is not reachable
+     * @throws GraphException when the target does not exist
+     */
+    public List<E> path(E target) throws GraphException {
+        Label v = label(target, "path()");
+        LinkedList<E> path = new LinkedList<>();
+        if (v.dist == Double.POSITIVE_INFINITY)
+            return path;
+        for (; v != null; v = v.pred)
+            path.addFirst(v.data);
+        return path;
+    }
+
+    /**
+     * Locates the state of a vertex
+     */
+    private Label label(E key, String method) throws GraphException {
+        Label v = labels.get(key);
+        if (v == null)
+            throw new GraphException("Non-existent vertex - " + method + ".");
+        return v;
+    }
+
+    /**
+     * Creates the state of a new vertex, growing the heap when every
+     * slot is taken
+     */
+    private Label addLabel(E data) {
+        int slot;
+        if (freeCount > 0)
+            slot = freeSlots[--freeCount];
+        else {
+            slot = slots.size();
+            slots.add(null);
+            if (slot == heapCapacity) {
+                heapCapacity *= 2;
+                heap = new IndexedMinHeap(heapCapacity);
+            }
+        }
+        Label v = new Label(data, slot);
+        slots.set(slot, v);
+        labels.put(data, v);
+        return v;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the queued vertices, lowering the
+     * distance of every vertex a queued vertex leads to more cheaply
+     */
+    private void settle() {
+        while (!heap.isEmpty()) {
+            Label x = slots.get(heap.poll());
+            try {
+                graph.forEachOutEdge(x.data, (from, to, weight) -> {
+                    Label y = labels.get(to);
+                    double newDist = x.dist + weight;
+                    if (newDist < y.dist) {
+                        y.dist = newDist;
+                        y.pred = x;
+                        heap.push(y.slot, newDist);
+                    }
+                });
+            } catch (GraphException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+
+    /**
+     * Lowers the distance of the head of an edge when the edge offers a
+     * shorter path, and propagates the drop
+     */
+    private void relax(E fromKey, E toKey, double weight) {
+        Label u = labels.get(fromKey);
+        Label v = labels.get(toKey);
+        double newDist = u.dist + weight;
+        if (newDist < v.dist) {
+            v.dist = newDist;
+            v.pred = u;
+            heap.push(v.slot, newDist);
+            settle();
+        }
+    }
+
+    /**
+     * Recomputes the subtree hanging from a vertex whose tree edge got
+     * longer or disappeared
+     */
+    private void repair(Label root) {
+        if (epoch == Integer.MAX_VALUE) {
+            for (Label v : labels.values())
+                v.mark = 0;
+            epoch = 0;
+        }
+        int current = ++epoch;
+      /* collect the subtree of root in the shortest-path tree */
+        ArrayList<Label> affected = new ArrayList<>();
+        ArrayDeque<Label> stack = new ArrayDeque<>();
+        root.mark = current;
+        stack.push(root);
+        try {
+            while (!stack.isEmpty()) {
+                Label x = stack.pop();
+                affected.add(x);
+                graph.forEachOutEdge(x.data, (from, to, weight) -> {
+                    Label y = labels.get(to);
+                    if (y.pred == x && y.mark != current) {
+                        y.mark = current;
+                        stack.push(y);
+                    }
+                });
+            }
+            for (Label x : affected) {
+                x.dist = Double.POSITIVE_INFINITY;
+                x.pred = null;
+            }
+          /* best entry into the subtree from the unaffected vertices */
+            for (Label x : affected) {
+                graph.forEachInEdge(x.data, (from, to, weight) -> {
+                    Label z = labels.get(from);
+                    if (z.mark != current && z.dist + weight < x.dist) {
+                        x.dist = z.dist + weight;
+                        x.pred = z;
+                    }
+                });
+                if (x.dist < Double.POSITIVE_INFINITY)
+                    heap.push(x.slot, x.dist);
+            }
+        } catch (GraphException exception) {
+            throw new IllegalStateException(exception);
+        }
+        settle();
+    }
+
+    @Override
+    public void vertexInserted(E data) {
+        Label v = addLabel(data);
+        if (data.compareTo(source) == 0)
+            v.dist = 0;
+    }
+
+    @Override
+    public void vertexDeleted(E data) {
+        Label v = labels.remove(data);
+        slots.set(v.slot, null);
+        if (freeCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, 2 * freeCount));
+        freeSlots[freeCount++] = v.slot;
+    }
+
+    @Override
+    public void edgeInserted(E fromKey, E toKey, double weight) {
+        relax(fromKey, toKey, weight);
+    }
+
+    @Override
+    public void edgeDeleted(E fromKey, E toKey, double weight) {
+        Label v = labels.get(toKey);
+        if (v.pred != null && v.pred.data.compareTo(fromKey) == 0)
+            repair(v);
+    }
+
+    @Override
+    public void edgeUpdated(E fromKey, E toKey, double oldWeight, double newWeight) {
+        if (newWeight < oldWeight)
+            relax(fromKey, toKey, newWeight);
+        else
+            edgeDeleted(fromKey, toKey, oldWeight);
+    }
+}
@@ -2,14 +2,28 @@ package basicgraphalgorithms;
 
 import sun.awt.image.ImageWatched;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * Implementation of an extensible adjacency list representation
  * of a weighted digraph whose vertices hold objects that implement
- * the Comparable interface.
+ * the Comparable interface. The vertices are kept in a list ordered
+ * by key and are also indexed by a hash directory, so the data type
+ * must define equals and hashCode consistently with compareTo.
+ * Lookups and traversals may run concurrently with each other as long
+ * as nothing modifies the graph. The connectivity queries are the
+ * exception: connected(), componentCount() and isWeaklyConnected()
+ * update the component forest as they read, so they must not run
+ * concurrently with each other or with any other method.
  *
  * @param <E> the data type
  * @author Duncan, Jordan Morris
@@ -24,6 +38,75 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
      * pointer to the list of vertices
      */
     private Vertex first;
+    /**
+     * pointer to the last vertex of the list
+     */
+    private Vertex last;
+    /**
+     * hash index of the vertices by key
+     */
+    private HashMap<E, Vertex> directory;
+    /**
+     * one more than the largest vertex id handed out
+     */
+    private int idLimit;
+    /**
+     * ids of deleted vertices, reused by later insertions
+     */
+    private int[] freeIds;
+    /**
+     * number of reusable ids
+     */
+    private int freeCount;
+    /**
+     * idle traversal contexts
+     */
+    private final ConcurrentLinkedQueue<Visit> visits = new ConcurrentLinkedQueue<>();
+    /**
+     * whether the in-edge lists are maintained
+     */
+    private boolean inEdges;
+    /**
+     * number of changes made to this graph, used to detect stale
+     * derived data
+     */
+    private long modCount;
+    /**
+     * the listeners notified of every change
+     */
+    private final ArrayList<GraphListener<E>> listeners = new ArrayList<>();
+    /**
+     * weakly connected components by vertex id, or null until they are
+     * first queried; ids of deleted vertices stay in singleton sets
+     */
+    private DisjointSet components;
+    /**
+     * whether an edge was deleted since the components were built
+     */
+    private boolean componentsStale;
+    /**
+     * vertices by position in the maintained topological order, with
+     * null at the positions of deleted vertices, or null when no order
+     * is maintained
+     */
+    private ArrayList<Vertex> topoOrder;
+
+    /**
+     * Receives the edges of a vertex.
+     *
+     * @param <E> the data type
+     */
+    @FunctionalInterface
+    public interface EdgeVisitor<E> {
+        /**
+         * Visits an edge
+         *
+         * @param fromKey data of the originating vertex
+         * @param toKey   data of the destination vertex
+         * @param weight  weight of the edge
+         */
+        void visit(E fromKey, E toKey, double weight);
+    }
 
     /**
      * A vertex of a graph stores a data item and references
@@ -35,6 +118,10 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
          * pointer to the next vertex
          */
         public Vertex pNextVertex;
+        /**
+         * pointer to the previous vertex
+         */
+        public Vertex pPrevVertex;
         /**
          * the data item
          */
@@ -52,17 +139,31 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
          */
         public Edge pEdge;
         /**
-         * Field for tracking vertex accesses
+         * pointer to the in-edge list, ordered by originating vertex;
+         * only maintained once transposeView() has been called
+         */
+        public Edge pInEdge;
+        /**
+         * small integer identifying this vertex while it is in the graph
+         */
+        public int id;
+        /**
+         * position in the maintained topological order
          */
-        public long processed;
+        public int ord;
     }
 
     /**
-     * An edge of a graph contains a reference to the destination
-     * vertex, a reference to the succeeding edge in the edge list and
-     * the weight of the directed edge.
+     * An edge of a graph contains references to its originating and
+     * destination vertices, to the succeeding edges in the edge list
+     * of the origin and in the in-edge list of the destination, and the
+     * weight of the directed edge.
      */
     private class Edge {
+        /**
+         * pointer to the originating vertex
+         */
+        public Vertex source;
         /**
          * pointer to the destination vertex
          */
@@ -75,6 +176,58 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
          * pointer to the next edge
          */
         public Edge pNextEdge;
+        /**
+         * pointer to the next edge in the in-edge list of destination
+         */
+        public Edge pNextInEdge;
+    }
+
+    /**
+     * The marks of one traversal, kept outside the vertices so several
+     * traversals can run on the same graph at once. A vertex is marked
+     * when its stamp equals the current epoch, so starting a traversal
+     * bumps the epoch instead of clearing every mark.
+     */
+    private class Visit {
+        /**
+         * epoch in which each vertex id was last marked
+         */
+        private int[] stamp = new int[0];
+        /**
+         * epoch of the current traversal
+         */
+        private int epoch;
+        /**
+         * the queue or stack of the current traversal
+         */
+        private final ArrayDeque<Vertex> pending = new ArrayDeque<>();
+
+        /**
+         * Clears the marks for a new traversal
+         */
+        void begin() {
+            if (stamp.length < idLimit) {
+                stamp = new int[Math.max(idLimit, 2 * stamp.length)];
+                epoch = 0;
+            } else if (epoch == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                epoch = 0;
+            }
+            epoch++;
+            pending.clear();
+        }
+
+        /**
+         * Marks a vertex
+         *
+         * @return true if the vertex was not marked yet; otherwise, false.
+         */
+        boolean mark(Vertex v) {
+            if (stamp[v.id] == epoch)
+                return false;
+            stamp[v.id] = epoch;
+            return true;
+        }
     }
 
     /**
@@ -82,59 +235,128 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
      */
     public Graph() {
         first = null;
+        last = null;
+        directory = new HashMap<>();
         order = 0;
+        idLimit = 0;
+        freeIds = new int[0];
+        freeCount = 0;
+    }
+
+    /**
+     * Locates the vertex with the specified key in the directory
+     *
+     * @param key search key of the vertex
+     * @return the vertex, or null when the key does not exist
+     */
+    private Vertex findVertex(E key) {
+        return directory.get(key);
+    }
+
+    /**
+     * Takes an idle traversal context, or creates one, and starts it
+     *
+     * @return a context with no vertex marked
+     */
+    private Visit acquireVisit() {
+        Visit visit = visits.poll();
+        if (visit == null)
+            visit = new Visit();
+        visit.begin();
+        return visit;
+    }
+
+    /**
+     * Returns a traversal context to the pool
+     *
+     * @param visit a context obtained from acquireVisit()
+     */
+    private void releaseVisit(Visit visit) {
+        visit.pending.clear();
+        visits.offer(visit);
     }
 
     @Override
     public void insertVertex(E obj) {
-        Vertex locPtr = first;
-        Vertex predPtr = null;
-        while (locPtr != null && obj.compareTo(locPtr.data) > 0) {
-            predPtr = locPtr;
-            locPtr = locPtr.pNextVertex;
-        }
       /*key already exist. */
-        if (locPtr != null && obj.compareTo(locPtr.data) == 0) {
+        Vertex locPtr = findVertex(obj);
+        if (locPtr != null) {
             locPtr.data = obj;
+            modCount++;
             return;
         }
+        Vertex predPtr = null;
+      /* keys usually arrive in order, so try appending first */
+        if (last != null && obj.compareTo(last.data) > 0)
+            predPtr = last;
+        else {
+            locPtr = first;
+            while (locPtr != null && obj.compareTo(locPtr.data) > 0) {
+                predPtr = locPtr;
+                locPtr = locPtr.pNextVertex;
+            }
+        }
         Vertex newPtr = new Vertex();
         newPtr.pNextVertex = null;
         newPtr.data = obj;
         newPtr.inDeg = 0;
         newPtr.outDeg = 0;
-        newPtr.processed = 0;
+        newPtr.id = freeCount > 0 ? freeIds[--freeCount] : idLimit++;
+        if (components != null && components.size() < idLimit)
+            components.add();
         newPtr.pEdge = null;
+        newPtr.pInEdge = null;
       /* insert before first vertex */
-        if (predPtr == null)
+        if (predPtr == null) {
+            newPtr.pNextVertex = first;
             first = newPtr;
-        else
+        } else {
+            newPtr.pNextVertex = predPtr.pNextVertex;
             predPtr.pNextVertex = newPtr;
-        newPtr.pNextVertex = locPtr;
+        }
+        newPtr.pPrevVertex = predPtr;
+        if (newPtr.pNextVertex == null)
+            last = newPtr;
+        else
+            newPtr.pNextVertex.pPrevVertex = newPtr;
+        directory.put(obj, newPtr);
         order++;
+        if (topoOrder != null)
+            appendToOrder(newPtr);
+        modCount++;
+        for (GraphListener<E> listener : listeners)
+            listener.vertexInserted(obj);
     }
 
     @Override
     public void deleteVertex(E key) {
         if (isEmpty())
             return;
-        Vertex predPtr = null;
-        Vertex walkPtr = first;
-        while (walkPtr != null && key.compareTo(walkPtr.data) > 0) {
-            predPtr = walkPtr;
-            walkPtr = walkPtr.pNextVertex;
-        }
-        if (walkPtr == null || key.compareTo(walkPtr.data) != 0)
+        Vertex walkPtr = findVertex(key);
+        if (walkPtr == null)
             return;
       /* vertex found. Test degree */
         if ((walkPtr.inDeg > 0) || (walkPtr.outDeg > 0))
             return;
       /* OK to delete */
-        if (predPtr == null)
+        if (walkPtr.pPrevVertex == null)
             first = walkPtr.pNextVertex;
         else
-            predPtr.pNextVertex = walkPtr.pNextVertex;
+            walkPtr.pPrevVertex.pNextVertex = walkPtr.pNextVertex;
+        if (walkPtr.pNextVertex == null)
+            last = walkPtr.pPrevVertex;
+        else
+            walkPtr.pNextVertex.pPrevVertex = walkPtr.pPrevVertex;
+        directory.remove(walkPtr.data);
+        if (freeCount == freeIds.length)
+            freeIds = Arrays.copyOf(freeIds, Math.max(16, 2 * freeCount));
+        freeIds[freeCount++] = walkPtr.id;
         order--;
+        if (topoOrder != null)
+            topoOrder.set(walkPtr.ord, null);
+        modCount++;
+        for (GraphListener<E> listener : listeners)
+            listener.vertexDeleted(walkPtr.data);
     }
 
     @Override
@@ -143,59 +365,218 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
             return;
         Edge pred;
       /* check whether originating vertex exists */
-        Vertex tmpFrom = first;
-        while (tmpFrom != null && fromKey.compareTo(tmpFrom.data) > 0)
-            tmpFrom = tmpFrom.pNextVertex;
-        if (tmpFrom == null || fromKey.compareTo(tmpFrom.data) != 0)
+        Vertex tmpFrom = findVertex(fromKey);
+        if (tmpFrom == null)
             return;
       /* locate destination vertex */
-        Vertex tmpTo = first;
-        while (tmpTo != null && toKey.compareTo(tmpTo.data) > 0)
-            tmpTo = tmpTo.pNextVertex;
-        if (tmpTo == null || toKey.compareTo(tmpTo.data) != 0)
+        Vertex tmpTo = findVertex(toKey);
+        if (tmpTo == null)
             return;
-      /*check if edge already exists */
+      /*check if edge already exists, remembering the tail of the list */
+        pred = null;
         Edge tmpEdge = tmpFrom.pEdge;
-        while (tmpEdge != null && tmpEdge.destination != tmpTo)
+        while (tmpEdge != null && tmpEdge.destination != tmpTo) {
+            pred = tmpEdge;
             tmpEdge = tmpEdge.pNextEdge;
-        if (tmpEdge != null && tmpEdge.destination != null)
+        }
+        if (tmpEdge != null)
+            return;
+        if (topoOrder != null && !orderEdge(tmpFrom, tmpTo))
             return;
         tmpFrom.outDeg++;
         tmpTo.inDeg++;
         Edge newEdge = new Edge();
+        newEdge.source = tmpFrom;
         newEdge.destination = tmpTo;
         newEdge.weight = weight;
         newEdge.pNextEdge = null;
-        if (tmpFrom.pEdge == null) {
+        if (pred == null)
             tmpFrom.pEdge = newEdge;
-            return;
+        else
+            pred.pNextEdge = newEdge;
+        if (inEdges)
+            linkInEdge(newEdge);
+        if (components != null)
+            components.union(tmpFrom.id, tmpTo.id);
+        modCount++;
+        for (GraphListener<E> listener : listeners)
+            listener.edgeInserted(tmpFrom.data, tmpTo.data, weight);
+    }
+
+    /**
+     * Inserts an edge in the in-edge list of its destination, keeping the
+     * list ordered by originating vertex
+     *
+     * @param edge an edge already in the edge list of its origin
+     */
+    private void linkInEdge(Edge edge) {
+        Edge pred = null;
+        Edge walk = edge.destination.pInEdge;
+        while (walk != null && walk.source.data.compareTo(edge.source.data) < 0) {
+            pred = walk;
+            walk = walk.pNextInEdge;
         }
-        pred = null;
-        tmpEdge = tmpFrom.pEdge;
-        while (tmpEdge != null && tmpEdge.destination != tmpTo) {
-            pred = tmpEdge;
-            tmpEdge = tmpEdge.pNextEdge;
+        edge.pNextInEdge = walk;
+        if (pred == null)
+            edge.destination.pInEdge = edge;
+        else
+            pred.pNextInEdge = edge;
+    }
+
+    /**
+     * Removes an edge from the in-edge list of its destination
+     *
+     * @param edge an edge in the in-edge list of its destination
+     */
+    private void unlinkInEdge(Edge edge) {
+        Edge pred = null;
+        Edge walk = edge.destination.pInEdge;
+        while (walk != edge) {
+            pred = walk;
+            walk = walk.pNextInEdge;
         }
         if (pred == null)
-            tmpFrom.pEdge = newEdge;
+            edge.destination.pInEdge = edge.pNextInEdge;
         else
-            pred.pNextEdge = newEdge;
-        newEdge.pNextEdge = tmpEdge;
+            pred.pNextInEdge = edge.pNextInEdge;
+    }
+
+    /**
+     * Inserts a batch of edges with the same outcome as calling
+     * insertEdge on each triple in order. The batch is stably sorted by
+     * source so each edge list is walked once, and the out-degree of
+     * each source is updated once per batch. While a topological order
+     * is maintained, which of several edges closing a cycle is rejected
+     * depends on their order, so the batch is then inserted one edge at
+     * a time in array order.
+     *
+     * @param fromKeys - data of the originating vertices.
+     * @param toKeys   - data of the destination vertices.
+     * @param weights  - weights of the edges.
+     */
+    @Override
+    public void insertEdges(E[] fromKeys, E[] toKeys, double[] weights) {
+        if (fromKeys.length != toKeys.length || fromKeys.length != weights.length)
+            throw new IllegalArgumentException("Batch arrays differ in length - insertEdges().");
+        if (isEmpty())
+            return;
+        if (topoOrder != null) {
+            for (int i = 0; i < fromKeys.length; i++)
+                insertEdge(fromKeys[i], toKeys[i], weights[i]);
+            return;
+        }
+      /* resolve the endpoints, dropping edges with a missing vertex */
+        int k = 0;
+        int[] batch = new int[fromKeys.length];
+      /* resolved edge j comes from position index[j] of the arrays */
+        int[] index = new int[fromKeys.length];
+        ArrayList<Vertex> src = new ArrayList<>(fromKeys.length);
+        ArrayList<Vertex> dst = new ArrayList<>(fromKeys.length);
+        for (int i = 0; i < fromKeys.length; i++) {
+            Vertex tmpFrom = findVertex(fromKeys[i]);
+            Vertex tmpTo = findVertex(toKeys[i]);
+            if (tmpFrom == null || tmpTo == null)
+                continue;
+            src.add(tmpFrom);
+            dst.add(tmpTo);
+            index[k] = i;
+            batch[k] = k;
+            k++;
+        }
+        batch = sortBySource(batch, k, src);
+      /* resolved edges that were inserted, kept for the listeners */
+        int[] inserted = listeners.isEmpty() ? null : new int[k];
+        int insertedCount = 0;
+      /* marks the destinations already linked from the current source */
+        Visit linked = acquireVisit();
+        for (int start = 0; start < k; ) {
+            Vertex tmpFrom = src.get(batch[start]);
+            Edge tail = null;
+            Edge tmpEdge = tmpFrom.pEdge;
+            linked.begin();
+            while (tmpEdge != null) {
+                linked.mark(tmpEdge.destination);
+                tail = tmpEdge;
+                tmpEdge = tmpEdge.pNextEdge;
+            }
+            long added = 0;
+            int end = start;
+            while (end < k && src.get(batch[end]) == tmpFrom) {
+                int j = batch[end++];
+                Vertex tmpTo = dst.get(j);
+                if (!linked.mark(tmpTo))
+                    continue;
+                tmpTo.inDeg++;
+                Edge newEdge = new Edge();
+                newEdge.source = tmpFrom;
+                newEdge.destination = tmpTo;
+                newEdge.weight = weights[index[j]];
+                newEdge.pNextEdge = null;
+                if (tail == null)
+                    tmpFrom.pEdge = newEdge;
+                else
+                    tail.pNextEdge = newEdge;
+                tail = newEdge;
+                if (inEdges)
+                    linkInEdge(newEdge);
+                if (components != null)
+                    components.union(tmpFrom.id, tmpTo.id);
+                if (inserted != null)
+                    inserted[insertedCount++] = j;
+                added++;
+            }
+            tmpFrom.outDeg += added;
+            modCount += added;
+            start = end;
+        }
+        releaseVisit(linked);
+        for (int m = 0; m < insertedCount; m++) {
+            int j = inserted[m];
+            for (GraphListener<E> listener : listeners)
+                listener.edgeInserted(src.get(j).data, dst.get(j).data, weights[index[j]]);
+        }
+    }
+
+    /**
+     * Stably sorts resolved edges by the key of their source vertex
+     * with a bottom-up merge sort
+     */
+    private int[] sortBySource(int[] a, int count, ArrayList<Vertex> src) {
+        int[] b = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count; lo += 2 * width) {
+                int mid = Math.min(lo + width, count);
+                int hi = Math.min(lo + 2 * width, count);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    if (src.get(a[j]).data.compareTo(src.get(a[i]).data) < 0)
+                        b[k++] = a[j++];
+                    else
+                        b[k++] = a[i++];
+                }
+                while (i < mid)
+                    b[k++] = a[i++];
+                while (j < hi)
+                    b[k++] = a[j++];
+            }
+            int[] tmp = a;
+            a = b;
+            b = tmp;
+        }
+        return a;
     }
 
     @Override
     public void deleteEdge(E fromKey, E toKey) {
       /* find source vertex */
-        Vertex tmpFrom = first;
-        while (tmpFrom != null && fromKey.compareTo(tmpFrom.data) > 0)
-            tmpFrom = tmpFrom.pNextVertex;
-        if (tmpFrom == null || fromKey.compareTo(tmpFrom.data) != 0)
+        Vertex tmpFrom = findVertex(fromKey);
+        if (tmpFrom == null)
             return;
       /* locate destination vertex */
-        Vertex tmpTo = first;
-        while (tmpTo != null && toKey.compareTo(tmpTo.data) > 0)
-            tmpTo = tmpTo.pNextVertex;
-        if (tmpTo == null || toKey.compareTo(tmpTo.data) != 0)
+        Vertex tmpTo = findVertex(toKey);
+        if (tmpTo == null)
             return;
       /*check if edge does not exist */
         Edge tmpEdge = tmpFrom.pEdge;
@@ -208,25 +589,108 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
         if (tmpEdge == null)
             return;
       /* update degrees */
-        if (pred != null)
+        if (pred == null)
+            tmpFrom.pEdge = tmpEdge.pNextEdge;
+        else
             pred.pNextEdge = tmpEdge.pNextEdge;
+        if (inEdges)
+            unlinkInEdge(tmpEdge);
+        componentsStale = true;
         tmpFrom.outDeg--;
         tmpTo.inDeg--;
+        modCount++;
+        for (GraphListener<E> listener : listeners)
+            listener.edgeDeleted(tmpFrom.data, tmpTo.data, tmpEdge.weight);
+    }
+
+    /**
+     * Changes the weight of an existing edge in place, so the edge keeps
+     * its position in the edge lists. If either key or the edge does not
+     * exist, the graph remains unaltered.
+     *
+     * @param fromKey - search key of the originating vertex.
+     * @param toKey   - search key of the destination vertex.
+     * @param weight  - the new weight of the edge.
+     */
+    public void updateEdge(E fromKey, E toKey, double weight) {
+        Vertex tmpFrom = findVertex(fromKey);
+        if (tmpFrom == null)
+            return;
+        Vertex tmpTo = findVertex(toKey);
+        if (tmpTo == null)
+            return;
+        Edge tmpEdge = tmpFrom.pEdge;
+        while (tmpEdge != null && tmpEdge.destination != tmpTo)
+            tmpEdge = tmpEdge.pNextEdge;
+        if (tmpEdge == null || tmpEdge.weight == weight)
+            return;
+        double oldWeight = tmpEdge.weight;
+        tmpEdge.weight = weight;
+        modCount++;
+        for (GraphListener<E> listener : listeners)
+            listener.edgeUpdated(tmpFrom.data, tmpTo.data, oldWeight, weight);
+    }
+
+    /**
+     * Registers a listener to be notified of every later change
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(GraphListener<E> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops notifying a listener
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(GraphListener<E> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies a visitor to each out-edge of a vertex, in edge list order
+     *
+     * @param key     search key of the vertex
+     * @param visitor receives each edge
+     * @throws GraphException when the vertex does not exist
+     */
+    public void forEachOutEdge(E key, EdgeVisitor<? super E> visitor) throws GraphException {
+        Vertex tmp = findVertex(key);
+        if (tmp == null)
+            throw new GraphException("Non-existent vertex - forEachOutEdge().");
+        for (Edge edgeWalk = tmp.pEdge; edgeWalk != null; edgeWalk = edgeWalk.pNextEdge)
+            visitor.visit(tmp.data, edgeWalk.destination.data, edgeWalk.weight);
+    }
+
+    /**
+     * Applies a visitor to each in-edge of a vertex, ordered by
+     * originating vertex. The first call starts maintaining the in-edge
+     * lists, as transposeView() does.
+     *
+     * @param key     search key of the vertex
+     * @param visitor receives each edge
+     * @throws GraphException when the vertex does not exist
+     */
+    public void forEachInEdge(E key, EdgeVisitor<? super E> visitor) throws GraphException {
+        Vertex tmp = findVertex(key);
+        if (tmp == null)
+            throw new GraphException("Non-existent vertex - forEachInEdge().");
+        maintainInEdges();
+        for (Edge edgeWalk = tmp.pInEdge; edgeWalk != null; edgeWalk = edgeWalk.pNextInEdge)
+            visitor.visit(edgeWalk.source.data, tmp.data, edgeWalk.weight);
     }
 
     @Override
     public double retrieveEdge(E fromKey, E toKey) throws GraphException {
       /* find source vertex */
-        Vertex tmpFrom = first;
-        while (tmpFrom != null && fromKey.compareTo(tmpFrom.data) > 0)
-            tmpFrom = tmpFrom.pNextVertex;
-        if (tmpFrom == null || fromKey.compareTo(tmpFrom.data) != 0)
+        Vertex tmpFrom = findVertex(fromKey);
+        if (tmpFrom == null)
             throw new GraphException("Non-existent edge - retrieveEdge().");
       /* locate destination vertex */
-        Vertex tmpTo = first;
-        while (tmpTo != null && toKey.compareTo(tmpTo.data) > 0)
-            tmpTo = tmpTo.pNextVertex;
-        if (tmpTo == null || toKey.compareTo(tmpTo.data) != 0)
+        Vertex tmpTo = findVertex(toKey);
+        if (tmpTo == null)
             throw new GraphException("Non-existent edge - retrieveEdge().");
       /*check if edge does not exist */
         Edge tmpEdge = tmpFrom.pEdge;
@@ -242,94 +706,517 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
     public E retrieveVertex(E key) throws GraphException {
         if (isEmpty())
             throw new GraphException("Non-existent vertex - retrieveVertex().");
-        Vertex tmp = first;
-        while (tmp != null && key.compareTo(tmp.data) != 0)
-            tmp = tmp.pNextVertex;
+        Vertex tmp = findVertex(key);
         if (tmp == null)
             throw new GraphException("Non-existent vertex - retrieveVertex().");
         return tmp.data;
     }
 
-    @Override
-    public void bfsTraverse(Function func) {
-        if (isEmpty())
-            return;
-        Vertex walkPtr = first;
-        while (walkPtr != null) {
-            walkPtr.processed = 0;
-            walkPtr = walkPtr.pNextVertex;
+    /**
+     * Starts a lazy breadth-first traversal from a vertex. Vertices are
+     * visited in the order bfsTraverse would reach them from start.
+     *
+     * @param start search key of the start vertex
+     * @return a traversal whose first element is the start vertex, to
+     * be closed when it is abandoned before its end
+     * @throws GraphException when the start vertex does not exist
+     */
+    public Traversal<E> bfs(E start) throws GraphException {
+        Vertex root = findVertex(start);
+        if (root == null)
+            throw new GraphException("Non-existent vertex - bfs().");
+        return new BreadthFirst(root);
+    }
+
+    /**
+     * Starts a lazy depth-first traversal from a vertex. Vertices are
+     * visited in preorder, each one before any vertex discovered through
+     * it, following the edge lists in order.
+     *
+     * @param start search key of the start vertex
+     * @return a traversal whose first element is the start vertex, to
+     * be closed when it is abandoned before its end
+     * @throws GraphException when the start vertex does not exist
+     */
+    public Traversal<E> dfs(E start) throws GraphException {
+        Vertex root = findVertex(start);
+        if (root == null)
+            throw new GraphException("Non-existent vertex - dfs().");
+        return new DepthFirst(root);
+    }
+
+    /**
+     * Lazy breadth-first traversal. A vertex is visited when it is
+     * discovered, so the parent of the vertex visited last is always the
+     * vertex whose edge list is being scanned, and the depth is tracked
+     * by counting the vertices left in the current level.
+     */
+    private class BreadthFirst implements Traversal<E> {
+        /**
+         * the marks and queue of this traversal
+         */
+        private Visit visit;
+        /**
+         * the start vertex, until it is visited
+         */
+        private Vertex root;
+        /**
+         * the vertex whose edges are being scanned
+         */
+        private Vertex expanding;
+        /**
+         * the next edge of expanding to examine
+         */
+        private Edge cursor;
+        /**
+         * depth of expanding
+         */
+        private int level;
+        /**
+         * queued vertices left at the depth of expanding
+         */
+        private int levelLeft;
+        /**
+         * queued vertices one level deeper
+         */
+        private int nextLevel;
+        /**
+         * depth and parent of the vertex visited last
+         */
+        private int depth;
+        private Vertex parent;
+
+        BreadthFirst(Vertex root) {
+            this.root = root;
+            visit = acquireVisit();
+            visit.mark(root);
         }
-        ArrayList<Vertex> queue = new ArrayList();
-        Vertex toPtr;
-        Edge edgeWalk;
-        Vertex tmp;
-        walkPtr = first;
-        while (walkPtr != null) {
-            if (walkPtr.processed < 2) {
-                if (walkPtr.processed < 1) {
-                    queue.add(walkPtr);
-                    walkPtr.processed = 1;
-                }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (visit == null)
+                return false;
+            if (root != null) {
+                expanding = root;
+                cursor = root.pEdge;
+                root = null;
+                depth = 0;
+                parent = null;
+                action.accept(expanding.data);
+                return true;
             }
-            while (!queue.isEmpty()) {
-                tmp = queue.remove(0);
-                func.apply(tmp.data);
-                tmp.processed = 2;
-                edgeWalk = tmp.pEdge;
-                while (edgeWalk != null) {
-                    toPtr = edgeWalk.destination;
-                    if (toPtr.processed == 0) {
-                        toPtr.processed = 1;
-                        queue.add(toPtr);
+            while (true) {
+                while (cursor != null) {
+                    Vertex toPtr = cursor.destination;
+                    cursor = cursor.pNextEdge;
+                    if (visit.mark(toPtr)) {
+                        visit.pending.addLast(toPtr);
+                        nextLevel++;
+                        depth = level + 1;
+                        parent = expanding;
+                        action.accept(toPtr.data);
+                        return true;
                     }
+                }
+                if (visit.pending.isEmpty()) {
+                    close();
+                    return false;
+                }
+                if (levelLeft == 0) {
+                    level++;
+                    levelLeft = nextLevel;
+                    nextLevel = 0;
+                }
+                levelLeft--;
+                expanding = visit.pending.pollFirst();
+                cursor = expanding.pEdge;
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return order;
+        }
+
+        @Override
+        public void close() {
+            if (visit != null) {
+                releaseVisit(visit);
+                visit = null;
+                root = null;
+            }
+        }
+
+        @Override
+        public int depth() {
+            return depth;
+        }
+
+        @Override
+        public E parent() {
+            return parent == null ? null : parent.data;
+        }
+    }
+
+    /**
+     * Lazy depth-first traversal in preorder, keeping the path from the
+     * start vertex with the next edge to examine at each step of it.
+     */
+    private class DepthFirst implements Traversal<E> {
+        /**
+         * the marks of this traversal
+         */
+        private Visit visit;
+        /**
+         * the vertices of the current path; the first is the start vertex
+         */
+        private final ArrayList<Vertex> path = new ArrayList<>();
+        /**
+         * the next edge to examine for each vertex of the path
+         */
+        private final ArrayList<Edge> cursors = new ArrayList<>();
+        /**
+         * index of the last vertex of the path, or -1 before the start
+         * vertex is visited
+         */
+        private int top = -1;
+        /**
+         * the start vertex, until it is visited
+         */
+        private Vertex root;
+
+        DepthFirst(Vertex root) {
+            this.root = root;
+            visit = acquireVisit();
+            visit.mark(root);
+        }
+
+        /**
+         * Extends the path with a vertex
+         */
+        private void push(Vertex v) {
+            top++;
+            path.add(v);
+            cursors.add(v.pEdge);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (visit == null)
+                return false;
+            if (root != null) {
+                push(root);
+                root = null;
+                action.accept(path.get(0).data);
+                return true;
+            }
+            while (top >= 0) {
+                Edge edgeWalk = cursors.get(top);
+                while (edgeWalk != null && !visit.mark(edgeWalk.destination))
                     edgeWalk = edgeWalk.pNextEdge;
+                if (edgeWalk == null) {
+                    path.remove(top);
+                    cursors.remove(top);
+                    top--;
+                    continue;
                 }
+                cursors.set(top, edgeWalk.pNextEdge);
+                push(edgeWalk.destination);
+                action.accept(edgeWalk.destination.data);
+                return true;
             }
-            walkPtr = walkPtr.pNextVertex;
+            close();
+            return false;
+        }
+
+        @Override
+        public long estimateSize() {
+            return order;
+        }
+
+        @Override
+        public void close() {
+            if (visit != null) {
+                releaseVisit(visit);
+                visit = null;
+                root = null;
+            }
+        }
+
+        @Override
+        public int depth() {
+            return top;
         }
+
+        @Override
+        public E parent() {
+            return top > 0 ? path.get(top - 1).data : null;
+        }
+    }
+
+    /**
+     * Applies the visit function in breadth-first-search order. The
+     * marks live in a pooled context, so traversals may run concurrently
+     * as long as nothing modifies the graph.
+     *
+     * @param func - the visit function.
+     */
+    @Override
+    public void bfsTraverse(Function func) {
+        breadthFirst(func, false);
     }
 
+    /**
+     * Applies the visit function in postorder depth-first-search order.
+     * The marks live in a pooled context, so traversals may run
+     * concurrently as long as nothing modifies the graph.
+     *
+     * @param func - the visit function.
+     */
     @Override
     public void dfsTraverse(Function func) {
+        depthFirst(func, false);
+    }
+
+    /**
+     * Gives the first edge to follow out of a vertex
+     *
+     * @param reverse whether the in-edges are followed
+     */
+    private Edge firstEdge(Vertex v, boolean reverse) {
+        return reverse ? v.pInEdge : v.pEdge;
+    }
+
+    /**
+     * Gives the edge to follow after the specified one
+     *
+     * @param reverse whether the in-edges are followed
+     */
+    private Edge nextEdge(Edge edge, boolean reverse) {
+        return reverse ? edge.pNextInEdge : edge.pNextEdge;
+    }
+
+    /**
+     * Gives the vertex reached by following an edge
+     *
+     * @param reverse whether the edge is followed backwards
+     */
+    private Vertex head(Edge edge, boolean reverse) {
+        return reverse ? edge.source : edge.destination;
+    }
+
+    /**
+     * Breadth-first traversal following the out-edges, or the in-edges
+     * when reverse is set
+     */
+    private void breadthFirst(Function func, boolean reverse) {
         if (isEmpty())
             return;
-        Vertex walkPtr = first;
-        while (walkPtr != null) {
-            walkPtr.processed = 0;
-            walkPtr = walkPtr.pNextVertex;
-        }
-        ArrayList<Vertex> stack = new ArrayList();
-        Vertex toPtr;
-        Edge edgeWalk;
-        Vertex tmp;
-        walkPtr = first;
-        while (walkPtr != null) {
-            if (walkPtr.processed < 2) {
-                if (walkPtr.processed < 1) {
-                    walkPtr.processed = 1;
-                    stack.add(0, walkPtr);
+        Visit visit = acquireVisit();
+        try {
+            ArrayDeque<Vertex> queue = visit.pending;
+            Vertex toPtr;
+            Edge edgeWalk;
+            Vertex tmp;
+            Vertex walkPtr = first;
+            while (walkPtr != null) {
+                if (visit.mark(walkPtr))
+                    queue.addLast(walkPtr);
+                while (!queue.isEmpty()) {
+                    tmp = queue.pollFirst();
+                    func.apply(tmp.data);
+                    edgeWalk = firstEdge(tmp, reverse);
+                    while (edgeWalk != null) {
+                        toPtr = head(edgeWalk, reverse);
+                        if (visit.mark(toPtr))
+                            queue.addLast(toPtr);
+                        edgeWalk = nextEdge(edgeWalk, reverse);
+                    }
                 }
+                walkPtr = walkPtr.pNextVertex;
+            }
+        } finally {
+            releaseVisit(visit);
+        }
+    }
+
+    /**
+     * Postorder depth-first traversal following the out-edges, or the
+     * in-edges when reverse is set
+     */
+    private void depthFirst(Function func, boolean reverse) {
+        if (isEmpty())
+            return;
+        Visit visit = acquireVisit();
+        try {
+            ArrayDeque<Vertex> stack = visit.pending;
+            Vertex toPtr;
+            Edge edgeWalk;
+            Vertex tmp;
+            Vertex walkPtr = first;
+            while (walkPtr != null) {
+                if (visit.mark(walkPtr))
+                    stack.push(walkPtr);
                 while (!stack.isEmpty()) {
-                    tmp = stack.get(0);
-                    edgeWalk = tmp.pEdge;
+                    tmp = stack.peek();
+                    edgeWalk = firstEdge(tmp, reverse);
                     while (edgeWalk != null) {
-                        toPtr = edgeWalk.destination;
-                        if (toPtr.processed == 0) {
-                            toPtr.processed = 1;
-                            stack.add(0, toPtr);
-                            edgeWalk = toPtr.pEdge;
+                        toPtr = head(edgeWalk, reverse);
+                        if (visit.mark(toPtr)) {
+                            stack.push(toPtr);
+                            edgeWalk = firstEdge(toPtr, reverse);
                         } else
-                            edgeWalk = edgeWalk.pNextEdge;
+                            edgeWalk = nextEdge(edgeWalk, reverse);
                     }
-                    tmp = stack.remove(0);
+                    tmp = stack.pop();
                     func.apply(tmp.data);
-                    tmp.processed = 2;
                 }
+                walkPtr = walkPtr.pNextVertex;
+            }
+        } finally {
+            releaseVisit(visit);
+        }
+    }
+
+    /**
+     * Gives the transpose of this graph as a view: the same vertices with
+     * every edge reversed. The first call starts maintaining an in-edge
+     * list per vertex, built in O(V + E) and then kept up to date by
+     * every edge insertion and deletion; the view itself copies nothing
+     * and reflects later changes. The in-edges of a vertex are ordered
+     * by originating vertex. Mutations through the view are applied to
+     * this graph with the edges reversed.
+     *
+     * @return the transpose of this graph
+     */
+    public GraphAPI<E> transposeView() {
+        maintainInEdges();
+        return new Transpose();
+    }
+
+    /**
+     * Builds every in-edge list unless they are already maintained;
+     * visiting the origins in key order appends the in-edges in the
+     * order of their origins
+     */
+    private void maintainInEdges() {
+        if (inEdges)
+            return;
+        inEdges = true;
+        ArrayList<Edge> tails = new ArrayList<>(Collections.nCopies(idLimit, (Edge) null));
+        Vertex walkPtr = first;
+        while (walkPtr != null) {
+            walkPtr.pInEdge = null;
+            walkPtr = walkPtr.pNextVertex;
+        }
+        walkPtr = first;
+        while (walkPtr != null) {
+            Edge edgeWalk = walkPtr.pEdge;
+            while (edgeWalk != null) {
+                Vertex dest = edgeWalk.destination;
+                edgeWalk.pNextInEdge = null;
+                Edge tail = tails.get(dest.id);
+                if (tail == null)
+                    dest.pInEdge = edgeWalk;
+                else
+                    tail.pNextInEdge = edgeWalk;
+                tails.set(dest.id, edgeWalk);
+                edgeWalk = edgeWalk.pNextEdge;
             }
             walkPtr = walkPtr.pNextVertex;
         }
     }
 
+    /**
+     * The transpose of this graph, reading the in-edge lists.
+     */
+    private class Transpose implements GraphAPI<E> {
+        @Override
+        public void insertVertex(E data) {
+            Graph.this.insertVertex(data);
+        }
+
+        @Override
+        public void deleteVertex(E key) {
+            Graph.this.deleteVertex(key);
+        }
+
+        @Override
+        public void insertEdge(E fromKey, E toKey, Double weight) {
+            Graph.this.insertEdge(toKey, fromKey, weight);
+        }
+
+        @Override
+        public void insertEdges(E[] fromKeys, E[] toKeys, double[] weights) {
+            Graph.this.insertEdges(toKeys, fromKeys, weights);
+        }
+
+        @Override
+        public void deleteEdge(E fromKey, E toKey) {
+            Graph.this.deleteEdge(toKey, fromKey);
+        }
+
+        @Override
+        public double retrieveEdge(E fromKey, E toKey) throws GraphException {
+            return Graph.this.retrieveEdge(toKey, fromKey);
+        }
+
+        @Override
+        public E retrieveVertex(E key) throws GraphException {
+            return Graph.this.retrieveVertex(key);
+        }
+
+        @Override
+        public void bfsTraverse(Function func) {
+            breadthFirst(func, true);
+        }
+
+        @Override
+        public void dfsTraverse(Function func) {
+            depthFirst(func, true);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return Graph.this.isEmpty();
+        }
+
+        @Override
+        public long size() {
+            return Graph.this.size();
+        }
+
+        @Override
+        public boolean isVertex(E key) {
+            return Graph.this.isVertex(key);
+        }
+
+        @Override
+        public boolean isEdge(E fromKey, E toKey) {
+            return Graph.this.isEdge(toKey, fromKey);
+        }
+
+        @Override
+        public boolean isPath(E fromKey, E toKey) {
+            return Graph.this.isPath(toKey, fromKey);
+        }
+
+        @Override
+        public long countEdges() {
+            return Graph.this.countEdges();
+        }
+
+        @Override
+        public long outDegree(E key) throws GraphException {
+            return Graph.this.inDegree(key);
+        }
+
+        @Override
+        public long inDegree(E key) throws GraphException {
+            return Graph.this.outDegree(key);
+        }
+    }
+
     @Override
     public boolean isEmpty() {
         return first == null;
@@ -340,14 +1227,23 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
         return order;
     }
 
+    /**
+     * Gives the number of changes made to this graph so far. Every
+     * insertion, deletion or update of a vertex or an edge increments
+     * it, so data derived from the graph is stale whenever the count
+     * differs from the one observed when the data was computed.
+     *
+     * @return the modification count
+     */
+    public long modCount() {
+        return modCount;
+    }
+
     @Override
     public boolean isVertex(E key) {
         if (isEmpty())
             return false;
-        Vertex tmp = first;
-        while (tmp != null && key.compareTo(tmp.data) != 0)
-            tmp = tmp.pNextVertex;
-        return tmp != null;
+        return findVertex(key) != null;
     }
 
     /*===> BEGIN: Augmented ADT methods <===*/
@@ -367,29 +1263,30 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
             return false;
         if(fromKey.compareTo(toKey) == 0)
             return true;
-        Vertex temp = first;
-        while(fromKey.compareTo(temp.data) != 0 && temp != null)
-            temp = temp.pNextVertex;
+        Vertex temp = findVertex(fromKey);
         if(temp == null)
             return false;
-        Edge e1;
-        ArrayList<Vertex> p = new ArrayList<>();
-        ArrayList<Vertex> n = new ArrayList<>();
-        n.add(temp);
-
-        while(!n.isEmpty()) {
-            temp = n.remove(0);
-            if(temp.data.compareTo(toKey) == 0)
-                return true;
-            p.add(temp);
-            e1 = temp.pEdge;
-            while(e1 != null) {
-                if(!p.contains(e1.destination))
-                    n.add(e1.destination);
-                e1 = e1.pNextEdge;
+        Visit visit = acquireVisit();
+        try {
+            ArrayDeque<Vertex> queue = visit.pending;
+            visit.mark(temp);
+            queue.addLast(temp);
+            Edge e1;
+            while (!queue.isEmpty()) {
+                temp = queue.pollFirst();
+                e1 = temp.pEdge;
+                while (e1 != null) {
+                    if (e1.destination.data.compareTo(toKey) == 0)
+                        return true;
+                    if (visit.mark(e1.destination))
+                        queue.addLast(e1.destination);
+                    e1 = e1.pNextEdge;
+                }
             }
+            return false;
+        } finally {
+            releaseVisit(visit);
         }
-        return false;
     }
 
     @Override
@@ -403,14 +1300,345 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
         return sum;
     }
 
+    /**
+     * Takes an immutable compressed sparse row snapshot of this graph.
+     * Vertex i of the snapshot is the i-th vertex of this graph in key
+     * order and each edge list keeps its current order.
+     *
+     * @return a snapshot of the current vertices and edges
+     */
+    public CsrGraph<E> freeze() {
+        int n = (int) order;
+        E[] vertices = CsrGraph.newKeyArray(n);
+        int[] offsets = new int[n + 1];
+        int[] rank = new int[idLimit];
+        int i = 0;
+        Vertex walkPtr = first;
+        while (walkPtr != null) {
+            rank[walkPtr.id] = i;
+            vertices[i] = walkPtr.data;
+            offsets[i + 1] = offsets[i] + (int) walkPtr.outDeg;
+            i++;
+            walkPtr = walkPtr.pNextVertex;
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        int e = 0;
+        walkPtr = first;
+        while (walkPtr != null) {
+            Edge edgeWalk = walkPtr.pEdge;
+            while (edgeWalk != null) {
+                targets[e] = rank[edgeWalk.destination.id];
+                weights[e] = edgeWalk.weight;
+                e++;
+                edgeWalk = edgeWalk.pNextEdge;
+            }
+            walkPtr = walkPtr.pNextVertex;
+        }
+        return new CsrGraph<>(vertices, offsets, targets, weights);
+    }
+
+    /**
+     * Finds the strongly connected components of this graph in O(V + E)
+     * time without recursion.
+     *
+     * @return the component number of each vertex, indexed by the
+     * position of the vertex in key order; an edge between two
+     * components always goes from the larger number to the smaller one
+     */
+    public int[] strongComponents() {
+        return new StronglyConnectedComponents(freeze()).components();
+    }
+
+    /**
+     * Determines whether every vertex of this graph can reach every
+     * other vertex along out-directed paths.
+     *
+     * @return true if the graph is strongly connected or empty;
+     * otherwise, false.
+     */
+    public boolean isStronglyConnected() {
+        return isEmpty() || new StronglyConnectedComponents(freeze()).count() == 1;
+    }
+
+    /**
+     * Determines whether two vertices are joined by a path when the
+     * direction of the edges is ignored. The first call starts
+     * maintaining a disjoint-set forest of the weakly connected
+     * components: every later edge insertion merges two sets in
+     * near-constant time and an edge deletion only marks the forest
+     * stale, so it is rebuilt in O(V + E) by the next query. The query
+     * builds the forest and compresses its paths, so it writes to the
+     * graph: calls must not overlap each other or any other method.
+     *
+     * @param fromKey search key of a vertex
+     * @param toKey   search key of a vertex
+     * @return true when the vertices are in the same weakly connected
+     * component; otherwise, false.
+     * @throws GraphException when either vertex does not exist
+     */
+    public boolean connected(E fromKey, E toKey) throws GraphException {
+        Vertex tmpFrom = findVertex(fromKey);
+        Vertex tmpTo = findVertex(toKey);
+        if (tmpFrom == null || tmpTo == null)
+            throw new GraphException("Non-existent vertex - connected().");
+        return currentComponents().connected(tmpFrom.id, tmpTo.id);
+    }
+
+    /**
+     * Gives the number of weakly connected components, maintained as
+     * described for connected(); like connected(), it writes to the
+     * graph and must not overlap any other call
+     *
+     * @return the number of components, 0 for an empty graph
+     */
+    public long componentCount() {
+        return currentComponents().count() - freeCount;
+    }
+
+    /**
+     * Gives the component forest, building it when it does not exist
+     * yet or an edge was deleted since it was built
+     */
+    private DisjointSet currentComponents() {
+        if (components == null || componentsStale) {
+            components = new DisjointSet(idLimit);
+            for (Vertex walkPtr = first; walkPtr != null; walkPtr = walkPtr.pNextVertex)
+                for (Edge edgeWalk = walkPtr.pEdge; edgeWalk != null; edgeWalk = edgeWalk.pNextEdge)
+                    components.union(walkPtr.id, edgeWalk.destination.id);
+            componentsStale = false;
+        }
+        return components;
+    }
+
+    /**
+     * Determines whether every vertex of this graph can reach every
+     * other vertex when the direction of the edges is ignored. Once the
+     * component forest exists it answers from the forest, and so must
+     * not overlap any other call, as for connected().
+     *
+     * @return true if the graph is weakly connected or empty;
+     * otherwise, false.
+     */
+    public boolean isWeaklyConnected() {
+        if (components != null)
+            return componentCount() <= 1;
+        if (isEmpty())
+            return true;
+        CsrGraph<E> out = freeze();
+        CsrGraph<E> in = out.transpose();
+        int n = out.vertexCount();
+        boolean[] seen = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        seen[0] = true;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = out.edgeBegin(v); e < out.edgeEnd(v); e++) {
+                int w = out.target(e);
+                if (!seen[w]) {
+                    seen[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+            for (int e = in.edgeBegin(v); e < in.edgeEnd(v); e++) {
+                int w = in.target(e);
+                if (!seen[w]) {
+                    seen[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return tail == n;
+    }
+
+    /**
+     * Generates a topological labeling of this graph, in reverse order,
+     * by successively removing a vertex of out-degree 0, smallest key
+     * first, until all the vertices are removed. The graph is not modified.
+     *
+     * @param linearOrder receives the vertices in the order they are
+     *                    removed; it is left partially filled when the
+     *                    graph contains a directed cycle
+     * @return true if a topological ordering of the vertices exists;
+     * otherwise, false.
+     */
+    public boolean topologicalSort(List<E> linearOrder) {
+        CsrGraph<E> snapshot = freeze();
+        TopologicalSort sort = new TopologicalSort(snapshot);
+        for (int i = 0; i < sort.labeledCount(); i++)
+            linearOrder.add(snapshot.vertexAt(sort.vertexAt(i)));
+        return sort.isAcyclic();
+    }
+
+    /**
+     * Starts maintaining a topological order of this graph online, with
+     * the algorithm of Pearce and Kelly. From then on an edge insertion
+     * that agrees with the order costs O(1); otherwise only the vertices
+     * positioned between the two endpoints that are reachable from the
+     * destination, or that reach the origin, are searched and swapped
+     * into place. An edge that would close a directed cycle, including a
+     * loop, is rejected: insertEdge and insertEdges leave the graph
+     * unaltered for it, so the graph stays acyclic.
+     *
+     * @throws GraphException when the graph contains a directed cycle
+     */
+    public void maintainTopologicalOrder() throws GraphException {
+        if (topoOrder != null)
+            return;
+        CsrGraph<E> snapshot = freeze();
+        TopologicalSort sort = new TopologicalSort(snapshot);
+        if (!sort.isAcyclic())
+            throw new GraphException("Directed cycle - maintainTopologicalOrder().");
+        int n = snapshot.vertexCount();
+        ArrayList<Vertex> slots = new ArrayList<>(Math.max(16, n));
+      /* the sort removes sinks first, so it lists the order backwards */
+        for (int i = n - 1; i >= 0; i--) {
+            Vertex v = findVertex(snapshot.vertexAt(sort.vertexAt(i)));
+            v.ord = slots.size();
+            slots.add(v);
+        }
+        topoOrder = slots;
+    }
+
+    /**
+     * Stops maintaining the topological order, so edges that close a
+     * cycle are accepted again
+     */
+    public void discardTopologicalOrder() {
+        topoOrder = null;
+    }
+
+    /**
+     * Determines whether one vertex comes before another in the
+     * maintained topological order, in O(1)
+     *
+     * @param fromKey search key of a vertex
+     * @param toKey   search key of a vertex
+     * @return true when the vertex with fromKey is ordered first;
+     * otherwise, false.
+     * @throws GraphException when no order is maintained or either
+     *                        vertex does not exist
+     */
+    public boolean precedes(E fromKey, E toKey) throws GraphException {
+        if (topoOrder == null)
+            throw new GraphException("Topological order not maintained - precedes().");
+        Vertex tmpFrom = findVertex(fromKey);
+        Vertex tmpTo = findVertex(toKey);
+        if (tmpFrom == null || tmpTo == null)
+            throw new GraphException("Non-existent vertex - precedes().");
+        return tmpFrom.ord < tmpTo.ord;
+    }
+
+    /**
+     * Gives the maintained topological order
+     *
+     * @return the data of every vertex, each before all the vertices
+     * it has edges to
+     * @throws GraphException when no order is maintained
+     */
+    public List<E> topologicalOrder() throws GraphException {
+        if (topoOrder == null)
+            throw new GraphException("Topological order not maintained - topologicalOrder().");
+        List<E> result = new ArrayList<>((int) order);
+        for (Vertex v : topoOrder)
+            if (v != null)
+                result.add(v.data);
+        return result;
+    }
+
+    /**
+     * Places a new vertex last in the topological order, first closing
+     * the gaps left by deleted vertices once they fill half the positions
+     */
+    private void appendToOrder(Vertex v) {
+        if (topoOrder.size() >= Math.max(16, 2 * order)) {
+            topoOrder.removeIf(w -> w == null);
+            for (int i = 0; i < topoOrder.size(); i++)
+                topoOrder.get(i).ord = i;
+        }
+        v.ord = topoOrder.size();
+        topoOrder.add(v);
+    }
+
+    /**
+     * Restores the topological order for a new edge before it is linked
+     *
+     * @return false when the edge would close a directed cycle;
+     * otherwise, true.
+     */
+    private boolean orderEdge(Vertex from, Vertex to) {
+        if (from == to)
+            return false;
+        int upper = from.ord;
+        int lower = to.ord;
+        if (upper < lower)
+            return true;
+        maintainInEdges();
+        Visit visit = acquireVisit();
+        try {
+            ArrayDeque<Vertex> stack = visit.pending;
+          /* vertices reachable from to that are ordered before from */
+            ArrayList<Vertex> forward = new ArrayList<>();
+            visit.mark(to);
+            stack.push(to);
+            while (!stack.isEmpty()) {
+                Vertex w = stack.pop();
+                forward.add(w);
+                for (Edge edgeWalk = w.pEdge; edgeWalk != null; edgeWalk = edgeWalk.pNextEdge) {
+                    Vertex z = edgeWalk.destination;
+                    if (z == from)
+                        return false;
+                    if (z.ord < upper && visit.mark(z))
+                        stack.push(z);
+                }
+            }
+          /* vertices reaching from that are ordered after to */
+            ArrayList<Vertex> backward = new ArrayList<>();
+            visit.mark(from);
+            stack.push(from);
+            while (!stack.isEmpty()) {
+                Vertex w = stack.pop();
+                backward.add(w);
+                for (Edge edgeWalk = w.pInEdge; edgeWalk != null; edgeWalk = edgeWalk.pNextInEdge) {
+                    Vertex z = edgeWalk.source;
+                    if (z.ord > lower && visit.mark(z))
+                        stack.push(z);
+                }
+            }
+          /* hand their positions out again, backward set first */
+            forward.sort((a, b) -> Integer.compare(a.ord, b.ord));
+            backward.sort((a, b) -> Integer.compare(a.ord, b.ord));
+            int[] positions = new int[forward.size() + backward.size()];
+            int k = 0;
+            for (Vertex w : backward)
+                positions[k++] = w.ord;
+            for (Vertex w : forward)
+                positions[k++] = w.ord;
+            Arrays.sort(positions);
+            k = 0;
+            for (Vertex w : backward) {
+                w.ord = positions[k++];
+                topoOrder.set(w.ord, w);
+            }
+            for (Vertex w : forward) {
+                w.ord = positions[k++];
+                topoOrder.set(w.ord, w);
+            }
+            return true;
+        } finally {
+            releaseVisit(visit);
+        }
+    }
+
     /*===> END: Augmented ADT methods <===*/
     @Override
     public long outDegree(E key) throws GraphException {
         if (isEmpty())
             throw new GraphException("Non-existent vertex - outDegree().");
-        Vertex tmp = first;
-        while (tmp != null && key.compareTo(tmp.data) != 0)
-            tmp = tmp.pNextVertex;
+        Vertex tmp = findVertex(key);
         if (tmp == null)
             throw new GraphException("Non-existent vertex - outDegree().");
         return tmp.outDeg;
@@ -420,9 +1648,7 @@ public class Graph<E extends Comparable<E>> implements GraphAPI<E> {
     public long inDegree(E key) throws GraphException {
         if (isEmpty())
             throw new GraphException("Non-existent vertex - inDegree().");
-        Vertex tmp = first;
-        while (tmp != null && key.compareTo(tmp.data) != 0)
-            tmp = tmp.pNextVertex;
+        Vertex tmp = findVertex(key);
         if (tmp == null)
             throw new GraphException("Non-existent vertex - inDegree().");
         return tmp.inDeg;
@@ -72,6 +72,23 @@ public interface GraphAPI<E extends Comparable> {
      */
     void insertEdge(E fromKey, E toKey, Double weight);
 
+    /**
+     * This method inserts a batch of weighted directed edges. The graph
+     * ends up exactly as if insertEdge were called on each triple in
+     * array order, so edges whose keys do not exist are skipped and the
+     * first of several edges between the same vertices wins.
+     *
+     * @param fromKeys - data of the originating vertices.
+     * @param toKeys   - data of the destination vertices.
+     * @param weights  - weights of the edges.
+     */
+    default void insertEdges(E[] fromKeys, E[] toKeys, double[] weights) {
+        if (fromKeys.length != toKeys.length || fromKeys.length != weights.length)
+            throw new IllegalArgumentException("Batch arrays differ in length - insertEdges().");
+        for (int i = 0; i < fromKeys.length; i++)
+            insertEdge(fromKeys[i], toKeys[i], weights[i]);
+    }
+
     /**
      * This method removes a weighted directed edge between two vertices.
      * If either key does not exist, the method returns and the graph
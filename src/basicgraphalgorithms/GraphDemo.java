@@ -20,6 +20,19 @@ import java.util.PriorityQueue;
 
 public class GraphDemo {
     public static final Double INFINITY = Double.POSITIVE_INFINITY;
+    /**
+     * shortest-path trees of the most recent sources, over a snapshot of
+     * the graph that is retaken whenever the graph changes
+     */
+    private static ShortestPathCache<City> shortestPaths;
+    /**
+     * number of shortest-path trees kept by the cache
+     */
+    private static final int CACHED_SOURCES = 256;
+    /**
+     * reachability index over the same snapshot, answering path queries
+     */
+    private static ReachabilityIndex reachability;
 
     public static void main(String[] args) throws GraphException {
         if (args.length != 1) {
@@ -31,7 +44,9 @@ public class GraphDemo {
         int menuReturnValue, i, j;
         Function<City, PrintStream> f = aCity -> System.out.printf("%-2d  %-30s%n", aCity.getKey(), aCity.getLabel().trim());
         Graph<City> g = readGraph(args[0]);
-        Graph<City> gPrime;
+        shortestPaths = new ShortestPathCache<>(g, CACHED_SOURCES);
+        reachability = new ReachabilityIndex(shortestPaths.graph());
+        GraphAPI<City> gPrime;
         long s = g.size();
         menuReturnValue = -1;
         while (menuReturnValue != 0) {
@@ -39,23 +54,12 @@ public class GraphDemo {
             switch (menuReturnValue) {
                 case 1: //Transitive Closure Matrix of g'
                     //Generate the transitive closure matrix
-                    gPrime = transpose(g);
+                    TransitiveClosure closure = new TransitiveClosure(shortestPaths.graph().transpose());
                     System.out.println();
                     System.out.println("Transitive Closure Matrix for the Transpose of the Graph In " + args[0]);
                     System.out.println("=========================================================================================");
                     //Add code here to display the matrix with two-character spaces between columns
-                    int[][] tMatrix = new int[(int) gPrime.size()][(int) gPrime.size()];
-                    for (int k = 0; k < gPrime.size(); k++) {
-                        City tmpCity1 = new City(k + 1);
-                        for (int l = 0; l < gPrime.size(); l++) {
-                            City tmpCity2 = new City(l + 1);
-                            if (gPrime.isPath(tmpCity1, tmpCity2) || tmpCity1.compareTo(tmpCity2) == 0)
-                                tMatrix[k][l] = 1;
-                            else
-                                tMatrix[k][l] = 0;
-                        }
-                    }
-                    print2DArray(tMatrix);
+                    printClosure(closure);
                     //End add code here
                     System.out.println("=========================================================================================");
                     System.out.println();
@@ -72,7 +76,7 @@ public class GraphDemo {
                     int initial = console.nextInt();
                     System.out.printf("Enter the destination vertex: ");
                     int dest = console.nextInt();
-                    if (g.isPath(new City(initial), new City(dest))) {
+                    if (isPath(initial, dest)) {
                         System.out.printf("Shortest route from %s to %s in G:%n", g.retrieveVertex(new City(initial)).getLabel().trim(), g.retrieveVertex(new City(dest)).getLabel().trim());
                         System.out.println("=========================================================================================");
                         //Add code here: A detail description of how the output should appear
@@ -101,7 +105,7 @@ public class GraphDemo {
                             City c = new City(temp);
                             if (!stack.isEmpty()) {
                                 City topCity = new City(stack.peek());
-                                System.out.printf("%-20s->%-20s%.02f%n", g.retrieveVertex(c).getLabel(), g.retrieveVertex(topCity).getLabel());
+                                System.out.printf("%-20s->%-20s%.02f%n", g.retrieveVertex(c).getLabel().trim(), g.retrieveVertex(topCity).getLabel().trim(), g.retrieveEdge(c, topCity));
                             }
                         }
                         //End code
@@ -197,38 +201,22 @@ public class GraphDemo {
      */
     private static Graph<City> readGraph(String filename) {
         try {
-            Graph<City> newGraph = new Graph();
-            try (FileReader reader = new FileReader(filename)) {
-                char temp;
-                City c1, c2, aCity;
-                String tmp;
-                int k, m, v1, v2, j, size = 0, nEdges = 0;
-                Integer key, v1Key, v2Key;
-                Double weight;
-                Scanner in = new Scanner(reader);
-                while (in.hasNext()) {
-                    tmp = in.next();
-                    temp = tmp.charAt(0);
-                    if (temp == 'p') {
-                        size = in.nextInt();
-                        nEdges = in.nextInt();
-                    } else if (temp == 'c') {
-                        in.nextLine();
-                    } else if (temp == 'n') {
-                        key = in.nextInt();
-                        tmp = in.nextLine();
-                        aCity = new City(key, tmp);
-                        newGraph.insertVertex(aCity);
-                    } else if (temp == 'e') {
-                        v1Key = in.nextInt();
-                        v2Key = in.nextInt();
-                        weight = in.nextDouble();
-                        c1 = new City(v1Key);
-                        c2 = new City(v2Key);
-                        newGraph.insertEdge(c1, c2, weight);
-                    }
+            CsrGraph<City> loaded = ParallelWdgLoader.load(filename);
+            Graph<City> newGraph = new Graph<>();
+          /* the snapshot lists the edges by source, in file order */
+            int m = loaded.edgeCount();
+            City[] from = new City[m];
+            City[] to = new City[m];
+            double[] weights = new double[m];
+            for (int v = 0; v < loaded.vertexCount(); v++) {
+                newGraph.insertVertex(loaded.vertexAt(v));
+                for (int e = loaded.edgeBegin(v); e < loaded.edgeEnd(v); e++) {
+                    from[e] = loaded.vertexAt(v);
+                    to[e] = loaded.vertexAt(loaded.target(e));
+                    weights[e] = loaded.weight(e);
                 }
             }
+            newGraph.insertEdges(from, to, weights);
             return newGraph;
         } catch (IOException exception) {
             System.out.println("Error processing file: " + exception);
@@ -272,6 +260,22 @@ public class GraphDemo {
         } while (true);
     }
 
+    /**
+     * Determines whether there is a path between two cities using the
+     * reachability index
+     *
+     * @param from key of the originating city
+     * @param to   key of the destination city
+     * @return true when both cities exist and to is reachable from from;
+     * otherwise, false.
+     */
+    private static boolean isPath(int from, int to) {
+        CsrGraph<City> snapshot = shortestPaths.graph();
+        int u = snapshot.indexOf(new City(from));
+        int v = snapshot.indexOf(new City(to));
+        return u >= 0 && v >= 0 && reachability.reachable(u, v);
+    }
+
     /**
      * This method creates the transpose graph of the specified graph,
      * that is a digraph whose vertices are the same but whose edges are the
@@ -283,104 +287,42 @@ public class GraphDemo {
      * specified graph
      * @throws GraphException
      */
-    private static Graph<City> transpose(Graph<City> g) throws GraphException {
+    private static GraphAPI<City> transpose(Graph<City> g) throws GraphException {
         if (g.isEmpty())
             throw new GraphException("Non-existent vertex - transpose(Graph<City g).");
-        Graph<City> newGraph = new Graph<>();
-        double gWeight;
-        int counter = 1;
-        //Copies vertexes into newGraph
-        for (int i = 1; i <= g.size(); i++)
-            newGraph.insertVertex(g.retrieveVertex(new City(i)));
-        while (counter <= g.size()) {
-            City tmpCity = new City(counter);
-            City tmpCityCycle = new City(1);
-            for (int j = 1; j <= g.size(); j++) {
-                if (g.isEdge(tmpCity, tmpCityCycle)) {
-                    gWeight = g.retrieveEdge(tmpCity, tmpCityCycle);
-                    newGraph.insertEdge(tmpCityCycle, tmpCity, gWeight);
-                }
-                tmpCityCycle = new City(j);
-            }
-            counter++;
-        }
-        return newGraph;
+        return g.transposeView();
     }
 
     /**
      * This method computes the cost and path arrays using the
-     * Dijkstra's single-source shortest path greedy algorithm.
+     * Dijkstra's single-source shortest path greedy algorithm. The tree
+     * of each source is computed once and cached until the graph
+     * changes; both arrays are indexed by key - 1 and pred holds the key
+     * of the predecessor or -1.
      *
      * @param g    an instance of a weighted directed graph
      * @param dist an array containing shortest distances from a source vertex
      * @param pred an array containing predecessor vertices along the shortest path
-     * @throws GraphException on call to retrieveEdge on non-existent edge
+     * @throws GraphException when the source or destination does not exist
      */
     private static void dijkstra(Graph<City> g, double[] dist, int[] pred, int source, int destination) throws GraphException {
-        //Implement this method
-        /**
-         * An auxiliary data structure to store the information
-         * about a node for the Dijkstra SP algorithm
-         *
-         */
-        class Node {
-            public int id;
-            public double key;
-
-            public Node() {
-            }
-
-            public Node(int v, double k) {
-                id = v;
-                key = k;
-            }
-        }
-       /* A Node comparator */
-        Comparator<Node> cmp = (v1, v2) ->
-        {
-            double d = v1.key - v2.key;
-            if (d < 0)
-                return -1;
-            if (d > 0)
-                return 1;
-            return v1.id - v2.id;
-        };
-        boolean[] visited = new boolean[dist.length];
-        for (int i = 0; i < dist.length; i++) {
-            dist[i] = INFINITY;
-            pred[i] = -1;
-            visited[i] = false;
-        }
-        dist[source - 1] = 0;
-        visited[source - 1] = true;
-        int x = source - 1;
-        while (true) {
-            for (int j = 0; j < dist.length; j++) {
-                if (g.isEdge(g.retrieveVertex(new City(x + 1)), g.retrieveVertex(new City(j + 1))) && !visited[j]) {
-                    double newDist = dist[x] + g.retrieveEdge(g.retrieveVertex(new City(x + 1)), g.retrieveVertex(new City(j + 1)));
-                    if (newDist < dist[j]) {
-                        dist[j] = newDist;
-                        pred[j] = x;
-                    }
-                }
-            }
-            visited[x] = true;
-            if (visited[destination - 1])
-                return;
-            double minDist = INFINITY;
-            int minIndex = -1;
-            for (int k = 0; k < dist.length; k++) {
-                if (dist[k] < minDist && !visited[k]) {
-                    minDist = dist[k];
-                    minIndex = k;
-                }
-            }
-            x = minIndex;
+        CsrGraph<City> csr = shortestPaths.graph();
+        int s = csr.indexOf(new City(source));
+        int t = csr.indexOf(new City(destination));
+        if (s < 0 || t < 0)
+            throw new GraphException("Non-existent vertex - dijkstra().");
+        ShortestPathCache.Tree tree = shortestPaths.tree(csr.vertexAt(s));
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            int key = csr.vertexAt(v).getKey();
+            int p = tree.predecessor(v);
+            dist[key - 1] = tree.distance(v);
+            pred[key - 1] = p < 0 ? -1 : csr.vertexAt(p).getKey();
         }
     }
 
     /**
-     * Determines whether or not the specified undirected graph is connected
+     * Determines whether or not the specified undirected graph is connected,
+     * that is whether it is weakly connected when viewed as a digraph
      *
      * @return true if the specified graph is connected; otherwise, false
      * @throws GraphException
@@ -388,34 +330,7 @@ public class GraphDemo {
     private static boolean isConnected(Graph<City> g) throws GraphException {
         if(g.isEmpty())
             throw new GraphException("Graph does not have any vertices - isConnected(Graph<City> g)");
-
-        /* Sets all vertices to 'not visited' */
-        boolean[] visited = new boolean[(int) g.size()];
-        for(int i = 0; i < visited.length; i++)
-            visited[i] = false;
-
-        Stack<City> queue = new Stack<>();
-        queue.push(new City(1));
-
-        while(!queue.isEmpty()) {
-            City tmpCity = queue.peek();
-            queue.pop();
-            if(!visited[tmpCity.getKey() - 1]) {
-                visited[tmpCity.getKey()-1] = true;
-                for(int j = 1; j <= g.countEdges(); j++) {
-                    if(g.isEdge(tmpCity, new City(j))) {
-                        if(!visited[(new City(j)).getKey() - 1])
-                            queue.push(new City(j));
-                    }
-                }
-            }
-        }
-
-        for(int k = 0; k < visited.length; k++) {
-            if(!visited[k])
-                return false;
-        }
-        return true;
+        return g.componentCount() == 1;
     }
 
     /**
@@ -434,62 +349,11 @@ public class GraphDemo {
     private static boolean topSortOutDeg(Graph<City> g, int linearOrder[]) throws GraphException {
         if(g.isEmpty())
             throw new GraphException("The graph does is (1) empty and/or (2) not connected - topSortOutDeg.");
-
-        /* Creates an array that stores each vertex's out degree */
-        int[] outDegree = new int[(int) g.size()];
-        for(int i = 1; i <= g.size(); i++)
-            outDegree[i-1] = (int) g.outDegree(new City(i));
-
-        /* Used to keep track of current index when inserting keys into linearOrder array */
-        int count = 0;
-
-        /* Used to make sure that while loop is not infinite if no topo sort exist */
-        int tracker = 1;
-
-        while (tracker <= g.size()) {
-            for (int j = 0; j < outDegree.length; j++) {
-                if (outDegree[j] == 0) {
-                    linearOrder[count] = j + 1;
-                    count++;
-                    /* Checks for adjacent vertices to the current vertex with no out degrees */
-                    for (int k = 1; k <= g.size(); k++) {
-                        if (g.isEdge(new City(k), new City(j + 1))) {
-                            /* Decreases out degree of adjacent vertices ('deleting' edges) */
-                            outDegree[k - 1]--;
-                        }
-                    }
-                    /* Marked as -1 to signify that the vertex has been 'removed' */
-                    outDegree[j] = -1;
-
-                    /* Gets out of current loop */
-                    j = outDegree.length + 1;
-
-                    /* Resets tracker in order to stay inside while loop */
-                    tracker = 1;
-                }
-                tracker++;
-            }
-        }
-
-        /* If outDegree array does not contain all zeros, that means a topo sort does not exist */
-        for(int p = 0; p < outDegree.length; p++) {
-            if(outDegree[p] != -1)
-                return false;
-        }
-        return true;
-    }
-
-    /**
-     * Find the root vertex of the tree in which the specified is
-     *
-     * @param parent the parent implementation of a subtree of a graph
-     * @param v      a vertex
-     * @return the root of this subtree
-     */
-    private static int find(int[] parent, int v) {
-        if(parent[v] != -1)
-            v = find(parent, parent[v]);
-        return v;
+        List<City> order = new ArrayList<>((int) g.size());
+        boolean acyclic = g.topologicalSort(order);
+        for (int i = 0; i < order.size(); i++)
+            linearOrder[i] = order.get(i).getKey();
+        return acyclic;
     }
 
     /**
@@ -497,7 +361,8 @@ public class GraphDemo {
      * algorithm. If no such MST exists, then it generates a minimum spanning forest.
      *
      * @param g      a weighted directed graph
-     * @param parent the parent implementation of the minimum spanning tree/forest
+     * @param parent the parent implementation of the minimum spanning tree/forest,
+     *               indexed by key - 1 and holding the key of the parent or -1
      * @return the weight of such a tree or forest.
      * @throws GraphException when this graph is empty
      *                        <pre>
@@ -509,113 +374,31 @@ public class GraphDemo {
      *  </pre>
      */
     private static double kruskalMST(Graph<City> g, int[] parent) throws GraphException {
-        /**
-         * An auxiliary data structure to store the information
-         * about an edge for the MST algorithm
-         *
-         */
-        class EdgeType {
-            public double weight;
-            public int source;
-            public int destination;
-            public boolean chosen;
-        }
-       /* An EdgeType comparator */
-        Comparator<EdgeType> cmp = (t1, t2) ->
-        {
-            if (t1.weight < t2.weight)
-                return -1;
-            if (t1.weight > t2.weight)
-                return 1;
-            if (t1.source < t2.source)
-                return -1;
-            if (t1.source > t2.source)
-                return 1;
-            if (t1.destination < t2.destination)
-                return -1;
-            if (t1.destination > t2.destination)
-                return 1;
-            return 0;
-        };
-        /*Defining an instance of the PriorityQueue class that uses the comparator above
-        and complete the implementation of the algorithm */
-        PriorityQueue<EdgeType> pQueue = new PriorityQueue(cmp);
-        boolean[] visited = new boolean[(int) g.size()];
-
-        /* Inserts all edges into the priority queue */
-        for (int i = 0; i < g.size(); i++) {
-            for (int j = 0; j < g.size(); j++) {
-                if (g.isEdge(new City(i + 1), new City(j + 1))) {
-                    EdgeType edge = new EdgeType();
-                    edge.source = i;
-                    edge.destination = j;
-                    edge.weight = g.retrieveEdge(new City(i + 1), new City(j + 1));
-                    pQueue.add(edge);
-                }
-                if (g.isEdge(new City(j + 1), new City(i + 1))) {
-                    EdgeType edge = new EdgeType();
-                    edge.source = j;
-                    edge.destination = i;
-                    edge.weight = g.retrieveEdge(new City(j + 1), new City(i + 1));
-                    pQueue.add(edge);
-                }
-            }
-        }
-
-        /* Initializes all indexes to -1 */
-        for (int i = 0; i < parent.length; i++)
-            parent[i] = -1;
-
-        double totalWeight = 0;
-
-        while (!pQueue.isEmpty()) {
-
-            EdgeType e1 = pQueue.poll();
-            if (!visited[e1.source]) {
-                if (!visited[e1.destination]) {
-                    totalWeight += e1.weight;
-                    parent[e1.destination] = e1.source;
-                    visited[e1.source] = true;
-                    visited[e1.destination] = true;
-                } else {
-                    totalWeight += e1.weight;
-                    parent[e1.source] = e1.destination;
-                    visited[e1.source] = true;
-                }
-            }
-            if (visited[e1.source]) {
-                if (!visited[e1.destination]) {
-                    totalWeight += e1.weight;
-                    parent[e1.destination] = e1.source;
-                    visited[e1.destination] = true;
-                }
-            }
-            if (find(parent, e1.source) != find(parent, e1.destination)) {
-                totalWeight += e1.weight;
-                Stack<Integer> s = new Stack<>();
-                int i = e1.destination;
-                s.push(e1.source);
-
-                while (i != -1) {
-                    s.push(i);
-                    i = parent[i];
-                }
-                while (s.size() > 1) {
-                    int dest = s.pop();
-                    int source = s.peek();
-                    parent[dest] = source;
-                }
-            }
+        if (g.isEmpty())
+            throw new GraphException("Graph does not have any vertices - kruskalMST(Graph<City> g)");
+        CsrGraph<City> csr = shortestPaths.graph();
+        MinimumSpanningForest forest = new MinimumSpanningForest(csr);
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            int p = forest.parent(v);
+            parent[csr.vertexAt(v).getKey() - 1] = p < 0 ? -1 : csr.vertexAt(p).getKey();
         }
-        return totalWeight;
+        return forest.totalWeight();
     }
 
-    private static void print2DArray(int[][] array) {
-        for (int i = 0; i <= array.length - 1; i++) {
-            for (int j = 0; j <= array.length - 1; j++) {
-                System.out.printf("%-2d", array[i][j]);
-            }
-            System.out.println();
+    /**
+     * Displays a transitive closure as a 0/1 matrix with two-character
+     * columns, reading the bits directly from the closure.
+     *
+     * @param closure the transitive closure of a graph
+     */
+    private static void printClosure(TransitiveClosure closure) {
+        int n = closure.vertexCount();
+        StringBuilder line = new StringBuilder(2 * n);
+        for (int i = 0; i < n; i++) {
+            line.setLength(0);
+            for (int j = 0; j < n; j++)
+                line.append(closure.reachable(i, j) ? "1 " : "0 ");
+            System.out.println(line);
         }
     }
 }
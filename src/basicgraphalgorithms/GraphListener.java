@@ -0,0 +1,65 @@
+package basicgraphalgorithms;
+
+/**
+ * Receives the changes made to a Graph it is registered with. Each
+ * method is called after the change has been applied, so the graph can
+ * be queried for its new state, and only for changes that actually
+ * altered the graph. A listener must not modify the graph while it is
+ * being notified. Every method does nothing by default.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public interface GraphListener<E> {
+    /**
+     * A vertex was inserted
+     *
+     * @param data the data of the new vertex
+     */
+    default void vertexInserted(E data) {
+    }
+
+    /**
+     * A vertex was deleted
+     *
+     * @param data the data of the deleted vertex
+     */
+    default void vertexDeleted(E data) {
+    }
+
+    /**
+     * An edge was inserted
+     *
+     * @param fromKey data of the originating vertex
+     * @param toKey   data of the destination vertex
+     * @param weight  weight of the new edge
+     */
+    default void edgeInserted(E fromKey, E toKey, double weight) {
+    }
+
+    /**
+     * An edge was deleted
+     *
+     * @param fromKey data of the originating vertex
+     * @param toKey   data of the destination vertex
+     * @param weight  weight of the deleted edge
+     */
+    default void edgeDeleted(E fromKey, E toKey, double weight) {
+    }
+
+    /**
+     * The weight of an edge was changed. By default this is reported as
+     * the deletion of the old edge followed by the insertion of the new
+     * one.
+     *
+     * @param fromKey   data of the originating vertex
+     * @param toKey     data of the destination vertex
+     * @param oldWeight previous weight of the edge
+     * @param newWeight current weight of the edge
+     */
+    default void edgeUpdated(E fromKey, E toKey, double oldWeight, double newWeight) {
+        edgeDeleted(fromKey, toKey, oldWeight);
+        edgeInserted(fromKey, toKey, newWeight);
+    }
+}
@@ -0,0 +1,339 @@
+package basicgraphalgorithms;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary snapshot of a city graph, so a restart can load the
+ * CSR arrays with a few bulk copies out of a memory-mapped file instead
+ * of parsing the .wdg text again. All numbers are little-endian and the
+ * layout is
+ * <pre>
+ *     header        magic "WDGS", version, n, m, label bytes (8), 0 (8)
+ *     keys          n ints
+ *     label ends    n + 1 ints, byte offsets into the label block
+ *     labels        UTF-8 bytes, then zeros up to a multiple of 8
+ *     offsets       n + 1 ints
+ *     targets       m ints, then zeros up to a multiple of 8
+ *     weights       m doubles
+ *     checksum      CRC-32 of every section but the padding, as a long
+ * </pre>
+ * Each section is mapped in windows of at most 1 GiB, so files larger
+ * than 2 GiB are handled. A null label is stored as an empty one.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class GraphSnapshot {
+    /**
+     * first four bytes of every snapshot, "WDGS"
+     */
+    private static final int MAGIC = 0x53474457;
+    /**
+     * version of the layout written by this class
+     */
+    private static final int VERSION = 1;
+    /**
+     * number of bytes of the header
+     */
+    private static final int HEADER_SIZE = 32;
+    /**
+     * largest part of a section mapped at once, a multiple of 8
+     */
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    /**
+     * Writes a snapshot of a graph. The snapshot is written next to the
+     * file and then moved over it, so a reader never sees half a file.
+     *
+     * @param graph the graph to save
+     * @param file  the snapshot file
+     * @throws IOException when the file cannot be written
+     */
+    public static void write(CsrGraph<City> graph, Path file) throws IOException {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        int[] keys = new int[n];
+        int[] labelEnds = new int[n + 1];
+        byte[][] labels = new byte[n][];
+        long labelBytes = 0;
+        for (int v = 0; v < n; v++) {
+            City city = graph.vertexAt(v);
+            keys[v] = city.getKey();
+            String label = city.getLabel();
+            labels[v] = label == null ? new byte[0] : label.getBytes(StandardCharsets.UTF_8);
+            labelBytes += labels[v].length;
+            if (labelBytes > Integer.MAX_VALUE)
+                throw new IOException("Labels too large for a snapshot.");
+            labelEnds[v + 1] = (int) labelBytes;
+        }
+        byte[] labelBlock = new byte[(int) labelBytes];
+        for (int v = 0; v < n; v++)
+            System.arraycopy(labels[v], 0, labelBlock, labelEnds[v], labels[v].length);
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        for (int v = 0; v < n; v++)
+            offsets[v + 1] = graph.edgeEnd(v);
+        for (int e = 0; e < m; e++) {
+            targets[e] = graph.target(e);
+            weights[e] = graph.weight(e);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            CRC32 crc = new CRC32();
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putLong(labelBytes).putLong(0);
+            header.flip();
+            crc.update(header);
+            long pos = HEADER_SIZE;
+            pos = putInts(channel, pos, keys, crc);
+            pos = putInts(channel, pos, labelEnds, crc);
+            pos = putBytes(channel, pos, labelBlock, crc);
+            pos = align(pos);
+            pos = putInts(channel, pos, offsets, crc);
+            pos = putInts(channel, pos, targets, crc);
+            pos = align(pos);
+            pos = putDoubles(channel, pos, weights, crc);
+            map(channel, FileChannel.MapMode.READ_WRITE, pos, 8).putLong(crc.getValue());
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes a snapshot of a graph
+     *
+     * @param graph    the graph to save
+     * @param filename the name of the snapshot file
+     * @throws IOException when the file cannot be written
+     */
+    public static void write(CsrGraph<City> graph, String filename) throws IOException {
+        write(graph, Paths.get(filename));
+    }
+
+    /**
+     * Loads a snapshot
+     *
+     * @param file the snapshot file
+     * @return the saved graph
+     * @throws IOException when the file cannot be read, is not a snapshot
+     *                     of a supported version, fails its checksum or
+     *                     does not describe a valid graph
+     */
+    public static CsrGraph<City> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + 8)
+                throw new IOException("Truncated snapshot: " + file);
+            CRC32 crc = new CRC32();
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC)
+                throw new IOException("Not a graph snapshot: " + file);
+            int version = header.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            int n = header.getInt();
+            int m = header.getInt();
+            long labelBytes = header.getLong();
+            header.rewind();
+            crc.update(header);
+            if (n < 0 || m < 0 || labelBytes < 0 || labelBytes > Integer.MAX_VALUE
+                    || size != expectedSize(n, m, labelBytes))
+                throw new IOException("Corrupt snapshot header: " + file);
+            int[] keys = new int[n];
+            int[] labelEnds = new int[n + 1];
+            byte[] labelBlock = new byte[(int) labelBytes];
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            long pos = HEADER_SIZE;
+            pos = getInts(channel, pos, keys, crc);
+            pos = getInts(channel, pos, labelEnds, crc);
+            pos = getBytes(channel, pos, labelBlock, crc);
+            pos = align(pos);
+            pos = getInts(channel, pos, offsets, crc);
+            pos = getInts(channel, pos, targets, crc);
+            pos = align(pos);
+            pos = getDoubles(channel, pos, weights, crc);
+            if (map(channel, FileChannel.MapMode.READ_ONLY, pos, 8).getLong() != crc.getValue())
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            validate(file, keys, labelEnds, labelBytes, offsets, targets);
+            City[] vertices = new City[n];
+            for (int v = 0; v < n; v++)
+                vertices[v] = new City(keys[v], new String(labelBlock, labelEnds[v],
+                        labelEnds[v + 1] - labelEnds[v], StandardCharsets.UTF_8));
+            return new CsrGraph<>(vertices, offsets, targets, weights);
+        }
+    }
+
+    /**
+     * Loads a snapshot
+     *
+     * @param filename the name of the snapshot file
+     * @return the saved graph
+     * @throws IOException when the file cannot be read, is not a snapshot
+     *                     of a supported version, fails its checksum or
+     *                     does not describe a valid graph
+     */
+    public static CsrGraph<City> read(String filename) throws IOException {
+        return read(Paths.get(filename));
+    }
+
+    /**
+     * Checks the structure of a snapshot that passed its checksum, so a
+     * file written by something else cannot yield an inconsistent graph
+     *
+     * @throws IOException when keys do not increase strictly, a label or
+     *                     an edge range runs backwards or out of its
+     *                     block, or a target is not a vertex
+     */
+    private static void validate(Path file, int[] keys, int[] labelEnds, long labelBytes,
+                                 int[] offsets, int[] targets) throws IOException {
+        int n = keys.length;
+        for (int v = 1; v < n; v++)
+            if (keys[v - 1] >= keys[v])
+                throw new IOException("Corrupt snapshot keys: " + file);
+        if (labelEnds[0] != 0 || labelEnds[n] != labelBytes)
+            throw new IOException("Corrupt snapshot labels: " + file);
+        for (int v = 0; v < n; v++)
+            if (labelEnds[v] > labelEnds[v + 1])
+                throw new IOException("Corrupt snapshot labels: " + file);
+        if (offsets[0] != 0 || offsets[n] != targets.length)
+            throw new IOException("Corrupt snapshot offsets: " + file);
+        for (int v = 0; v < n; v++)
+            if (offsets[v] > offsets[v + 1])
+                throw new IOException("Corrupt snapshot offsets: " + file);
+        for (int target : targets)
+            if (target < 0 || target >= n)
+                throw new IOException("Corrupt snapshot targets: " + file);
+    }
+
+    /**
+     * Gives the size of a snapshot with the specified counts
+     */
+    private static long expectedSize(long n, long m, long labelBytes) {
+        long pos = HEADER_SIZE + 4 * n + 4 * (n + 1) + labelBytes;
+        pos = align(pos) + 4 * (n + 1) + 4 * m;
+        return align(pos) + 8 * m + 8;
+    }
+
+    /**
+     * Rounds a position up to a multiple of 8
+     */
+    private static long align(long pos) {
+        return (pos + 7) & ~7L;
+    }
+
+    /**
+     * Maps part of a file as a little-endian buffer
+     */
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long pos, long length)
+            throws IOException {
+        MappedByteBuffer buf = channel.map(mode, pos, length);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        return buf;
+    }
+
+    /**
+     * Writes an int section, returning the position that follows it
+     */
+    private static long putInts(FileChannel channel, long pos, int[] a, CRC32 crc) throws IOException {
+        for (int off = 0; off < a.length; ) {
+            int count = Math.min(a.length - off, WINDOW_SIZE / 4);
+            MappedByteBuffer buf = map(channel, FileChannel.MapMode.READ_WRITE, pos, 4L * count);
+            buf.asIntBuffer().put(a, off, count);
+            crc.update(buf);
+            pos += 4L * count;
+            off += count;
+        }
+        return pos;
+    }
+
+    /**
+     * Writes a double section, returning the position that follows it
+     */
+    private static long putDoubles(FileChannel channel, long pos, double[] a, CRC32 crc) throws IOException {
+        for (int off = 0; off < a.length; ) {
+            int count = Math.min(a.length - off, WINDOW_SIZE / 8);
+            MappedByteBuffer buf = map(channel, FileChannel.MapMode.READ_WRITE, pos, 8L * count);
+            buf.asDoubleBuffer().put(a, off, count);
+            crc.update(buf);
+            pos += 8L * count;
+            off += count;
+        }
+        return pos;
+    }
+
+    /**
+     * Writes a byte section, returning the position that follows it
+     */
+    private static long putBytes(FileChannel channel, long pos, byte[] a, CRC32 crc) throws IOException {
+        for (int off = 0; off < a.length; ) {
+            int count = Math.min(a.length - off, WINDOW_SIZE);
+            MappedByteBuffer buf = map(channel, FileChannel.MapMode.READ_WRITE, pos, count);
+            buf.put(a, off, count);
+            buf.flip();
+            crc.update(buf);
+            pos += count;
+            off += count;
+        }
+        return pos;
+    }
+
+    /**
+     * Reads an int section, returning the position that follows it
+     */
+    private static long getInts(FileChannel channel, long pos, int[] a, CRC32 crc) throws IOException {
+        for (int off = 0; off < a.length; ) {
+            int count = Math.min(a.length - off, WINDOW_SIZE / 4);
+            MappedByteBuffer buf = map(channel, FileChannel.MapMode.READ_ONLY, pos, 4L * count);
+            buf.asIntBuffer().get(a, off, count);
+            crc.update(buf);
+            pos += 4L * count;
+            off += count;
+        }
+        return pos;
+    }
+
+    /**
+     * Reads a double section, returning the position that follows it
+     */
+    private static long getDoubles(FileChannel channel, long pos, double[] a, CRC32 crc) throws IOException {
+        for (int off = 0; off < a.length; ) {
+            int count = Math.min(a.length - off, WINDOW_SIZE / 8);
+            MappedByteBuffer buf = map(channel, FileChannel.MapMode.READ_ONLY, pos, 8L * count);
+            buf.asDoubleBuffer().get(a, off, count);
+            crc.update(buf);
+            pos += 8L * count;
+            off += count;
+        }
+        return pos;
+    }
+
+    /**
+     * Reads a byte section, returning the position that follows it
+     */
+    private static long getBytes(FileChannel channel, long pos, byte[] a, CRC32 crc) throws IOException {
+        for (int off = 0; off < a.length; ) {
+            int count = Math.min(a.length - off, WINDOW_SIZE);
+            MappedByteBuffer buf = map(channel, FileChannel.MapMode.READ_ONLY, pos, count);
+            buf.get(a, off, count);
+            buf.flip();
+            crc.update(buf);
+            pos += count;
+            off += count;
+        }
+        return pos;
+    }
+}
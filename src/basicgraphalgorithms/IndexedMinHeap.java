@@ -0,0 +1,195 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of the integers 0 to capacity - 1 keyed by doubles,
+ * supporting decrease-key through a position index. Ties between equal
+ * keys are broken by the smaller item so that the extraction order is
+ * deterministic. The heap is meant to be cleared and reused, so clear()
+ * costs time proportional to the items still queued rather than the
+ * capacity.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+class IndexedMinHeap {
+    /**
+     * the items in heap order
+     */
+    private final int[] heap;
+    /**
+     * position of each item in the heap, or -1 when it is not queued
+     */
+    private final int[] pos;
+    /**
+     * priority of each queued item
+     */
+    private final double[] key;
+    /**
+     * number of queued items
+     */
+    private int size;
+
+    /**
+     * Creates an empty heap for the items 0 to capacity - 1
+     *
+     * @param capacity the number of distinct items
+     */
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        key = new double[capacity];
+        Arrays.fill(pos, -1);
+        size = 0;
+    }
+
+    /**
+     * Determine whether the heap is empty.
+     *
+     * @return true if no item is queued; otherwise, false.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gives the number of queued items
+     *
+     * @return the number of queued items
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether an item is queued
+     *
+     * @param v an item
+     * @return true when v is in the heap; otherwise, false.
+     */
+    boolean contains(int v) {
+        return pos[v] >= 0;
+    }
+
+    /**
+     * Gives the priority of a queued item
+     *
+     * @param v a queued item
+     * @return the priority of v
+     */
+    double keyOf(int v) {
+        return key[v];
+    }
+
+    /**
+     * Queues an item, or lowers its priority when it is already queued
+     * with a larger one. A larger priority for a queued item is ignored.
+     *
+     * @param v an item
+     * @param k the priority of the item
+     */
+    void push(int v, double k) {
+        if (pos[v] < 0) {
+            key[v] = k;
+            pos[v] = size;
+            heap[size] = v;
+            size++;
+            siftUp(pos[v]);
+        } else if (k < key[v]) {
+            key[v] = k;
+            siftUp(pos[v]);
+        }
+    }
+
+    /**
+     * Gives the item with the smallest priority without removing it
+     *
+     * @return the item at the top of the heap
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Gives the smallest priority in the heap
+     *
+     * @return the priority of the item at the top of the heap
+     */
+    double peekKey() {
+        return key[heap[0]];
+    }
+
+    /**
+     * Removes the item with the smallest priority
+     *
+     * @return the removed item
+     */
+    int poll() {
+        int v = heap[0];
+        size--;
+        pos[v] = -1;
+        if (size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return v;
+    }
+
+    /**
+     * Removes every queued item
+     */
+    void clear() {
+        for (int i = 0; i < size; i++)
+            pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    /**
+     * Determines whether item a should be above item b
+     */
+    private boolean less(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && a < b);
+    }
+
+    /**
+     * Moves the item at position i up to its place
+     */
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (!less(v, p))
+                break;
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+
+    /**
+     * Moves the item at position i down to its place
+     */
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && less(heap[child + 1], heap[child]))
+                child++;
+            int c = heap[child];
+            if (!less(c, v))
+                break;
+            heap[i] = c;
+            pos[c] = i;
+            i = child;
+        }
+        heap[i] = v;
+        pos[v] = i;
+    }
+}
@@ -0,0 +1,313 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Implementation of an adjacency array representation of a weighted
+ * digraph whose vertices are identified by non-negative int keys. The
+ * per-vertex state lives in arrays indexed directly by key, so lookups
+ * neither allocate nor compare objects. Keys should be reasonably dense
+ * since storage grows with the largest key inserted.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class IntGraph implements IntGraphAPI {
+    /**
+     * initial capacity of the per-vertex arrays
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * number of vertices (size of this graph)
+     */
+    private long order;
+    /**
+     * number of edges of this graph
+     */
+    private long edges;
+    /**
+     * whether a vertex with a given key exists
+     */
+    private boolean[] present;
+    /**
+     * destination keys of the out-edges of each vertex
+     */
+    private int[][] targets;
+    /**
+     * weights of the out-edges of each vertex
+     */
+    private double[][] weights;
+    /**
+     * out-degree of each vertex; also the fill of its edge arrays
+     */
+    private int[] outDeg;
+    /**
+     * in-degree of each vertex
+     */
+    private int[] inDeg;
+
+    /**
+     * Constructs an empty weighted directed graph
+     */
+    public IntGraph() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty weighted directed graph sized for keys
+     * below the specified capacity
+     *
+     * @param capacity the expected number of keys
+     */
+    public IntGraph(int capacity) {
+        capacity = Math.max(capacity, 1);
+        present = new boolean[capacity];
+        targets = new int[capacity][];
+        weights = new double[capacity][];
+        outDeg = new int[capacity];
+        inDeg = new int[capacity];
+        order = 0;
+        edges = 0;
+    }
+
+    /**
+     * Grows the per-vertex arrays so that they can hold the specified key
+     *
+     * @param key a vertex key
+     */
+    private void ensureCapacity(int key) {
+        if (key < present.length)
+            return;
+        int capacity = Math.max(key + 1, present.length + (present.length >> 1));
+        present = Arrays.copyOf(present, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        outDeg = Arrays.copyOf(outDeg, capacity);
+        inDeg = Arrays.copyOf(inDeg, capacity);
+    }
+
+    /**
+     * Locates the position of an edge in the edge arrays of its source
+     *
+     * @param fromKey key of an existing originating vertex
+     * @param toKey   key of the destination vertex
+     * @return the position of the edge, or -1 when there is no such edge
+     */
+    private int edgeIndex(int fromKey, int toKey) {
+        int[] adj = targets[fromKey];
+        for (int i = 0; i < outDeg[fromKey]; i++)
+            if (adj[i] == toKey)
+                return i;
+        return -1;
+    }
+
+    @Override
+    public void insertVertex(int key) {
+        if (key < 0)
+            throw new IllegalArgumentException("Negative key - insertVertex().");
+        ensureCapacity(key);
+        if (present[key])
+            return;
+        present[key] = true;
+        outDeg[key] = 0;
+        inDeg[key] = 0;
+        order++;
+    }
+
+    @Override
+    public void deleteVertex(int key) {
+        if (!isVertex(key))
+            return;
+        if (inDeg[key] > 0 || outDeg[key] > 0)
+            return;
+        present[key] = false;
+        targets[key] = null;
+        weights[key] = null;
+        order--;
+    }
+
+    @Override
+    public void insertEdge(int fromKey, int toKey, double weight) {
+        if (!isVertex(fromKey) || !isVertex(toKey))
+            return;
+        if (edgeIndex(fromKey, toKey) >= 0)
+            return;
+        int deg = outDeg[fromKey];
+        if (targets[fromKey] == null) {
+            targets[fromKey] = new int[4];
+            weights[fromKey] = new double[4];
+        } else if (deg == targets[fromKey].length) {
+            targets[fromKey] = Arrays.copyOf(targets[fromKey], deg * 2);
+            weights[fromKey] = Arrays.copyOf(weights[fromKey], deg * 2);
+        }
+        targets[fromKey][deg] = toKey;
+        weights[fromKey][deg] = weight;
+        outDeg[fromKey]++;
+        inDeg[toKey]++;
+        edges++;
+    }
+
+    @Override
+    public void deleteEdge(int fromKey, int toKey) {
+        if (!isVertex(fromKey) || !isVertex(toKey))
+            return;
+        int i = edgeIndex(fromKey, toKey);
+        if (i < 0)
+            return;
+      /* close the gap, keeping the remaining edges in insertion order */
+        int tail = outDeg[fromKey] - i - 1;
+        System.arraycopy(targets[fromKey], i + 1, targets[fromKey], i, tail);
+        System.arraycopy(weights[fromKey], i + 1, weights[fromKey], i, tail);
+        outDeg[fromKey]--;
+        inDeg[toKey]--;
+        edges--;
+    }
+
+    @Override
+    public double retrieveEdge(int fromKey, int toKey) throws GraphException {
+        if (!isVertex(fromKey) || !isVertex(toKey))
+            throw new GraphException("Non-existent edge - retrieveEdge().");
+        int i = edgeIndex(fromKey, toKey);
+        if (i < 0)
+            throw new GraphException("Non-existent edge - retrieveEdge().");
+        return weights[fromKey][i];
+    }
+
+    @Override
+    public void forEachEdge(int fromKey, EdgeVisitor visitor) throws GraphException {
+        if (!isVertex(fromKey))
+            throw new GraphException("Non-existent vertex - forEachEdge().");
+        int[] adj = targets[fromKey];
+        double[] wts = weights[fromKey];
+        for (int i = 0; i < outDeg[fromKey]; i++)
+            visitor.visit(adj[i], wts[i]);
+    }
+
+    @Override
+    public void bfsTraverse(IntConsumer func) {
+        boolean[] seen = new boolean[present.length];
+        int[] queue = new int[(int) order];
+        for (int s = 0; s < present.length; s++) {
+            if (!present[s] || seen[s])
+                continue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = s;
+            seen[s] = true;
+            while (head < tail) {
+                int v = queue[head++];
+                func.accept(v);
+                int[] adj = targets[v];
+                for (int i = 0; i < outDeg[v]; i++) {
+                    int w = adj[i];
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dfsTraverse(IntConsumer func) {
+        boolean[] seen = new boolean[present.length];
+        int[] stack = new int[(int) order];
+        int[] cursor = new int[(int) order];
+        for (int s = 0; s < present.length; s++) {
+            if (!present[s] || seen[s])
+                continue;
+            int top = 0;
+            stack[0] = s;
+            cursor[0] = 0;
+            seen[s] = true;
+            while (top >= 0) {
+                int v = stack[top];
+                int i = cursor[top];
+                while (i < outDeg[v] && seen[targets[v][i]])
+                    i++;
+                if (i < outDeg[v]) {
+                    int w = targets[v][i];
+                    cursor[top] = i + 1;
+                    seen[w] = true;
+                    top++;
+                    stack[top] = w;
+                    cursor[top] = 0;
+                } else {
+                    func.accept(v);
+                    top--;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return order == 0;
+    }
+
+    @Override
+    public long size() {
+        return order;
+    }
+
+    @Override
+    public boolean isVertex(int key) {
+        return key >= 0 && key < present.length && present[key];
+    }
+
+    /*===> BEGIN: Augmented ADT methods <===*/
+    @Override
+    public boolean isEdge(int fromKey, int toKey) {
+        return isVertex(fromKey) && isVertex(toKey) && edgeIndex(fromKey, toKey) >= 0;
+    }
+
+    @Override
+    public boolean isPath(int fromKey, int toKey) {
+        if (!isVertex(fromKey) || !isVertex(toKey))
+            return false;
+        if (fromKey == toKey)
+            return true;
+        boolean[] seen = new boolean[present.length];
+        int[] queue = new int[(int) order];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = fromKey;
+        seen[fromKey] = true;
+        while (head < tail) {
+            int v = queue[head++];
+            int[] adj = targets[v];
+            for (int i = 0; i < outDeg[v]; i++) {
+                int w = adj[i];
+                if (w == toKey)
+                    return true;
+                if (!seen[w]) {
+                    seen[w] = true;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long countEdges() {
+        return edges;
+    }
+
+    /*===> END: Augmented ADT methods <===*/
+    @Override
+    public long outDegree(int key) throws GraphException {
+        if (!isVertex(key))
+            throw new GraphException("Non-existent vertex - outDegree().");
+        return outDeg[key];
+    }
+
+    @Override
+    public long inDegree(int key) throws GraphException {
+        if (!isVertex(key))
+            throw new GraphException("Non-existent vertex - inDegree().");
+        return inDeg[key];
+    }
+}
@@ -0,0 +1,177 @@
+package basicgraphalgorithms;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Describe the fundamental operations of a weighted directed graph whose
+ * vertices are identified by non-negative int keys. This is the primitive
+ * counterpart of GraphAPI: keys, weights and visit functions never box.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public interface IntGraphAPI {
+    /**
+     * A visit function for the out-edges of a vertex.
+     */
+    @FunctionalInterface
+    interface EdgeVisitor {
+        /**
+         * Visits a directed edge.
+         *
+         * @param toKey  - key of the destination vertex.
+         * @param weight - weight of the edge.
+         */
+        void visit(int toKey, double weight);
+    }
+
+    /**
+     * This method inserts a new vertex with the specified key in the
+     * weighted graph. If the key already exists the graph remains
+     * unaltered.
+     *
+     * @param key - key of the vertex.
+     */
+    void insertVertex(int key);
+
+    /**
+     * This method deletes the vertex with the specified key from the
+     * weighted graph. If the key does not exist or the in-degree or out
+     * degree is positive, the weighted graph remains unaltered.
+     *
+     * @param key - key of the vertex.
+     */
+    void deleteVertex(int key);
+
+    /**
+     * This method inserts a weighted directed edge between two vertices.
+     * If either key does not exist or there is already a directed edge
+     * between the vertices, the graph remains unaltered. Otherwise an edge
+     * is inserted and the in-degree and out-degree of both vertices are
+     * updated.
+     *
+     * @param fromKey - key of the originating vertex.
+     * @param toKey   - key of the destination vertex.
+     * @param weight  - weight of the edge between the from and to
+     *                vertices.
+     */
+    void insertEdge(int fromKey, int toKey, double weight);
+
+    /**
+     * This method removes the weighted directed edge between two vertices.
+     * If either key or the edge does not exist, the graph remains
+     * unaltered.
+     *
+     * @param fromKey - key of the originating vertex.
+     * @param toKey   - key of the destination vertex.
+     */
+    void deleteEdge(int fromKey, int toKey);
+
+    /**
+     * This method returns the weight of the directed edge between
+     * the vertices with fromKey and toKey if the edge exists. If
+     * the directed edge does not exist, an exception is generated.
+     *
+     * @param fromKey - key of the originating vertex.
+     * @param toKey   - key of the destination vertex.
+     * @return the weight on the edge
+     * @throws GraphException
+     */
+    double retrieveEdge(int fromKey, int toKey) throws GraphException;
+
+    /**
+     * This method applies the visit function to the out-edges of
+     * the vertex with the specified key in insertion order.
+     *
+     * @param fromKey - key of the originating vertex.
+     * @param visitor - the visit function.
+     * @throws GraphException when the vertex does not exist
+     */
+    void forEachEdge(int fromKey, EdgeVisitor visitor) throws GraphException;
+
+    /**
+     * This method applies the visit function to the keys of the
+     * vertices of the graph in breadth-first-search order.
+     *
+     * @param func - the visit function.
+     */
+    void bfsTraverse(IntConsumer func);
+
+    /**
+     * This method applies the visit function to the keys of the
+     * vertices of the graph in postorder depth-first-search order.
+     *
+     * @param func - the visit function.
+     */
+    void dfsTraverse(IntConsumer func);
+
+    /**
+     * Determine whether the graph is empty.
+     *
+     * @return true if the graph is empty; otherwise, false.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the order of graph.
+     *
+     * @return the number of vertices in the graph
+     */
+    long size();
+
+    /**
+     * Determine whether a key is in the graph.
+     *
+     * @param key - key of the vertex.
+     * @return true on success; false on failure.
+     */
+    boolean isVertex(int key);
+
+    /**
+     * Determines whether there is a directed edge between two vertices.
+     *
+     * @param fromKey - key of the originating vertex.
+     * @param toKey   - key of the destination vertex.
+     * @return true on success or false on failure.
+     */
+    boolean isEdge(int fromKey, int toKey);
+
+    /**
+     * Determines whether there is an out-directed path between two
+     * vertices.
+     *
+     * @param fromKey - key of the originating vertex.
+     * @param toKey   - key of the destination vertex.
+     * @return true on success or false on failure.
+     */
+    boolean isPath(int fromKey, int toKey);
+
+    /**
+     * Determines the number of edges in the graph.
+     *
+     * @return the number of edges.
+     */
+    long countEdges();
+
+    /**
+     * Determines the number of out-directed edges from the vertex
+     * with the key.
+     *
+     * @param key - key of the vertex.
+     * @return out-degree.
+     * @throws GraphException when the vertex with the specified
+     *                        key does not exist
+     */
+    long outDegree(int key) throws GraphException;
+
+    /**
+     * Determines the number of in-directed edges from the vertex
+     * with the key.
+     *
+     * @param key - key of the vertex.
+     * @return in-degree.
+     * @throws GraphException when the vertex with the specified key
+     *                        does not exist
+     */
+    long inDegree(int key) throws GraphException;
+}
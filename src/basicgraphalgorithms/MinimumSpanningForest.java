@@ -0,0 +1,185 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+
+/**
+ * A minimum spanning forest of a CSR snapshot found with Kruskal's
+ * algorithm, treating every directed edge as an undirected one. The edges
+ * are read straight from the adjacency arrays into primitive arrays,
+ * sorted by (weight, source, destination) and merged with a disjoint-set
+ * forest, so the whole computation costs O(E log E). Each tree of the
+ * forest is then rooted at its smallest vertex to give a parent array.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class MinimumSpanningForest {
+    /**
+     * parent of each vertex in its tree, or -1 for a root
+     */
+    private final int[] parent;
+    /**
+     * total weight of the forest
+     */
+    private final double totalWeight;
+    /**
+     * number of edges in the forest
+     */
+    private final int edgeCount;
+
+    /**
+     * Computes a minimum spanning forest of the specified graph
+     *
+     * @param graph a weighted graph
+     */
+    public MinimumSpanningForest(CsrGraph<?> graph) {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weight = new double[m];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            for (int e = graph.edgeBegin(v); e < graph.edgeEnd(v); e++) {
+                if (graph.target(e) == v)
+                    continue;
+                from[count] = v;
+                to[count] = graph.target(e);
+                weight[count] = graph.weight(e);
+                count++;
+            }
+        }
+        int[] sorted = sortEdges(from, to, weight, count);
+      /* Kruskal: take each edge that joins two trees */
+        DisjointSet sets = new DisjointSet(n);
+        int[] treeFrom = new int[Math.max(n - 1, 0)];
+        int[] treeTo = new int[Math.max(n - 1, 0)];
+        int chosen = 0;
+        double total = 0;
+        for (int i = 0; i < count && chosen < n - 1; i++) {
+            int e = sorted[i];
+            if (sets.union(from[e], to[e])) {
+                treeFrom[chosen] = from[e];
+                treeTo[chosen] = to[e];
+                total += weight[e];
+                chosen++;
+            }
+        }
+        totalWeight = total;
+        edgeCount = chosen;
+        parent = rootTrees(n, treeFrom, treeTo, chosen);
+    }
+
+    /**
+     * Sorts the edge positions by weight, then source, then destination
+     * with a bottom-up merge sort over primitive arrays
+     */
+    private static int[] sortEdges(int[] from, int[] to, double[] weight, int count) {
+        int[] a = new int[count];
+        int[] b = new int[count];
+        for (int i = 0; i < count; i++)
+            a[i] = i;
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count; lo += 2 * width) {
+                int mid = Math.min(lo + width, count);
+                int hi = Math.min(lo + 2 * width, count);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    int x = a[i];
+                    int y = a[j];
+                    boolean takeRight = weight[y] < weight[x]
+                            || (weight[y] == weight[x] && (from[y] < from[x]
+                            || (from[y] == from[x] && to[y] < to[x])));
+                    if (takeRight) {
+                        b[k++] = y;
+                        j++;
+                    } else {
+                        b[k++] = x;
+                        i++;
+                    }
+                }
+                while (i < mid)
+                    b[k++] = a[i++];
+                while (j < hi)
+                    b[k++] = a[j++];
+            }
+            int[] tmp = a;
+            a = b;
+            b = tmp;
+        }
+        return a;
+    }
+
+    /**
+     * Roots each tree of the forest at its smallest vertex with a BFS
+     */
+    private static int[] rootTrees(int n, int[] treeFrom, int[] treeTo, int edges) {
+        int[] start = new int[n + 1];
+        for (int i = 0; i < edges; i++) {
+            start[treeFrom[i] + 1]++;
+            start[treeTo[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++)
+            start[v + 1] += start[v];
+        int[] fill = Arrays.copyOf(start, n);
+        int[] adj = new int[2 * edges];
+        for (int i = 0; i < edges; i++) {
+            adj[fill[treeFrom[i]]++] = treeTo[i];
+            adj[fill[treeTo[i]]++] = treeFrom[i];
+        }
+        int[] parent = new int[n];
+        boolean[] seen = new boolean[n];
+        int[] queue = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (seen[root])
+                continue;
+            seen[root] = true;
+            parent[root] = -1;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = start[v]; i < start[v + 1]; i++) {
+                    int w = adj[i];
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        parent[w] = v;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * Gives the total weight of the forest
+     *
+     * @return the sum of the weights of the chosen edges
+     */
+    public double totalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Gives the number of edges of the forest
+     *
+     * @return the number of chosen edges
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Gives the parent of a vertex in its tree
+     *
+     * @param v a vertex index
+     * @return index of the parent, or -1 when v is the root of its tree
+     */
+    public int parent(int v) {
+        return parent[v];
+    }
+}
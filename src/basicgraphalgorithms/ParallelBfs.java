@@ -0,0 +1,340 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level-synchronous breadth-first search over a CSR snapshot that runs
+ * each level on a fork/join pool. The frontiers are bitmaps and every
+ * level is expanded in one of two directions (Beamer et al.): top-down
+ * steps scan the out-edges of the frontier, and bottom-up steps let each
+ * unvisited vertex scan its in-edges for a parent in the frontier, which
+ * is far cheaper once the frontier holds a large share of the edges. The
+ * search switches to bottom-up when the frontier has more than 1/ALPHA
+ * of the unexplored edges and back when it holds fewer than 1/BETA of
+ * the vertices. Small graphs are searched sequentially with an int[]
+ * queue. The results are the level of each vertex and the parent that
+ * discovered it; when several frontier vertices could be the parent, any
+ * of them may be reported.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class ParallelBfs {
+    /**
+     * switch to bottom-up when the frontier edges exceed 1/ALPHA of the
+     * unexplored edges
+     */
+    private static final int ALPHA = 14;
+    /**
+     * switch back to top-down when the frontier holds fewer than 1/BETA
+     * of the vertices
+     */
+    private static final int BETA = 24;
+    /**
+     * graphs with fewer vertices are searched sequentially
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+    /**
+     * bitmap words handled by one leaf task
+     */
+    private static final int GRAIN = 64;
+
+    /**
+     * the graph being searched
+     */
+    private final CsrGraph<?> graph;
+    /**
+     * the transpose, built for the first bottom-up step
+     */
+    private CsrGraph<?> reverse;
+    /**
+     * the pool that runs the steps
+     */
+    private final ForkJoinPool pool;
+    /**
+     * level of each vertex, or -1 when it is unreachable
+     */
+    private int[] level;
+    /**
+     * parent of each vertex in the search tree, or -1
+     */
+    private int[] parent;
+    /**
+     * vertices of the current level
+     */
+    private AtomicLongArray frontier;
+    /**
+     * vertices of the next level
+     */
+    private AtomicLongArray next;
+    /**
+     * level being discovered by the current step
+     */
+    private int depth;
+
+    /**
+     * Prepares searches of a graph on the common pool
+     *
+     * @param graph a directed graph
+     */
+    public ParallelBfs(CsrGraph<?> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prepares searches of a graph on the specified pool
+     *
+     * @param graph a directed graph
+     * @param pool  the pool that runs the steps
+     */
+    public ParallelBfs(CsrGraph<?> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Searches the graph from a source
+     *
+     * @param source index of the source vertex
+     * @throws GraphException when the source does not exist
+     */
+    public void run(int source) throws GraphException {
+        int n = graph.vertexCount();
+        if (source < 0 || source >= n)
+            throw new GraphException("Non-existent vertex - run().");
+        level = new int[n];
+        parent = new int[n];
+        Arrays.fill(level, -1);
+        Arrays.fill(parent, -1);
+        level[source] = 0;
+        if (n < SEQUENTIAL_THRESHOLD || pool.getParallelism() == 1)
+            runSequential(source);
+        else
+            runParallel(source);
+    }
+
+    /**
+     * Gives the level of each vertex from the last search
+     *
+     * @return the levels, -1 for an unreachable vertex
+     */
+    public int[] levels() {
+        return level;
+    }
+
+    /**
+     * Gives the parent of each vertex from the last search
+     *
+     * @return the parents, -1 for the source and unreachable vertices
+     */
+    public int[] parents() {
+        return parent;
+    }
+
+    /**
+     * Gives the level of a vertex from the last search
+     *
+     * @param v a vertex index
+     * @return the number of edges on a shortest path from the source,
+     * or -1 when v is unreachable
+     */
+    public int level(int v) {
+        return level[v];
+    }
+
+    /**
+     * Gives the parent of a vertex from the last search
+     *
+     * @param v a vertex index
+     * @return the vertex that discovered v, or -1
+     */
+    public int parent(int v) {
+        return parent[v];
+    }
+
+    /**
+     * Plain breadth-first search with an array queue
+     */
+    private void runSequential(int source) {
+        int[] queue = new int[graph.vertexCount()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int e = graph.edgeBegin(u); e < graph.edgeEnd(u); e++) {
+                int v = graph.target(e);
+                if (level[v] < 0) {
+                    level[v] = level[u] + 1;
+                    parent[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Direction-optimizing search, one fork/join step per level
+     */
+    private void runParallel(int source) {
+        int n = graph.vertexCount();
+        int words = (n + 63) >>> 6;
+        frontier = new AtomicLongArray(words);
+        next = new AtomicLongArray(words);
+        frontier.set(source >>> 6, 1L << source);
+        long frontierSize = 1;
+        long frontierEdges = outDegree(source);
+        long unexploredEdges = graph.edgeCount() - frontierEdges;
+        boolean bottomUp = false;
+        depth = 0;
+        while (frontierSize > 0) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA)
+                bottomUp = true;
+            else if (bottomUp && frontierSize < n / BETA)
+                bottomUp = false;
+            if (bottomUp && reverse == null)
+                reverse = graph.transpose();
+            depth++;
+            Step step = new Step(0, words, bottomUp);
+            pool.invoke(step);
+            frontierSize = step.found;
+            frontierEdges = step.foundEdges;
+            unexploredEdges -= frontierEdges;
+            AtomicLongArray tmp = frontier;
+            frontier = next;
+            next = tmp;
+            for (int w = 0; w < words; w++)
+                next.set(w, 0);
+        }
+        frontier = null;
+        next = null;
+    }
+
+    /**
+     * Gives the out-degree of a vertex
+     */
+    private int outDegree(int v) {
+        return graph.edgeEnd(v) - graph.edgeBegin(v);
+    }
+
+    /**
+     * Expands the part of the current level that lies in a range of
+     * bitmap words, counting the vertices it discovers and their
+     * out-edges.
+     */
+    private class Step extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        /**
+         * first bitmap word of the range
+         */
+        private final int lo;
+        /**
+         * word following the range
+         */
+        private final int hi;
+        /**
+         * whether the step runs bottom-up
+         */
+        private final boolean bottomUp;
+        /**
+         * vertices discovered in the range
+         */
+        long found;
+        /**
+         * out-edges of the vertices discovered in the range
+         */
+        long foundEdges;
+
+        Step(int lo, int hi, boolean bottomUp) {
+            this.lo = lo;
+            this.hi = hi;
+            this.bottomUp = bottomUp;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                Step left = new Step(lo, mid, bottomUp);
+                Step right = new Step(mid, hi, bottomUp);
+                invokeAll(left, right);
+                found = left.found + right.found;
+                foundEdges = left.foundEdges + right.foundEdges;
+            } else if (bottomUp)
+                bottomUp();
+            else
+                topDown();
+        }
+
+        /**
+         * Scans the out-edges of the frontier vertices of the range
+         */
+        private void topDown() {
+            for (int w = lo; w < hi; w++) {
+                long bits = frontier.get(w);
+                while (bits != 0) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    for (int e = graph.edgeBegin(u); e < graph.edgeEnd(u); e++) {
+                        int v = graph.target(e);
+                        if (level[v] < 0 && claim(v)) {
+                            level[v] = depth;
+                            parent[v] = u;
+                            found++;
+                            foundEdges += outDegree(v);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sets the bit of a vertex in the next frontier
+         *
+         * @return true when this call set it; otherwise, false.
+         */
+        private boolean claim(int v) {
+            int w = v >>> 6;
+            long bit = 1L << v;
+            long old;
+            do {
+                old = next.get(w);
+                if ((old & bit) != 0)
+                    return false;
+            } while (!next.compareAndSet(w, old, old | bit));
+            return true;
+        }
+
+        /**
+         * Looks for a frontier parent of each unvisited vertex of the
+         * range; the range owns its words of the next frontier
+         */
+        private void bottomUp() {
+            int n = graph.vertexCount();
+            for (int w = lo; w < hi; w++) {
+                long bits = 0;
+                int end = Math.min((w + 1) << 6, n);
+                for (int v = w << 6; v < end; v++) {
+                    if (level[v] >= 0)
+                        continue;
+                    for (int e = reverse.edgeBegin(v); e < reverse.edgeEnd(v); e++) {
+                        int u = reverse.target(e);
+                        if ((frontier.get(u >>> 6) & (1L << u)) != 0) {
+                            level[v] = depth;
+                            parent[v] = u;
+                            bits |= 1L << v;
+                            found++;
+                            foundEdges += outDegree(v);
+                            break;
+                        }
+                    }
+                }
+                if (bits != 0)
+                    next.set(w, bits);
+            }
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package basicgraphalgorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads a .wdg file straight into a CSR snapshot using every core. The
+ * file is split into chunks that end on line boundaries; each chunk is
+ * mapped and decoded by its own fork/join task into primitive buffers
+ * presized from the p record. The buffers are then merged with a stable
+ * counting sort by source, so the result is exactly the snapshot that
+ * freeze() gives for a Graph filled by inserting the records one at a
+ * time: a repeated vertex keeps its first position and its last label,
+ * an edge is kept only when both endpoints were read before it, and the
+ * first of several parallel edges wins.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class ParallelWdgLoader {
+    /**
+     * smallest chunk worth a task of its own
+     */
+    private static final long MIN_CHUNK = 1 << 20;
+    /**
+     * largest chunk, which must fit in one mapping
+     */
+    private static final long MAX_CHUNK = 1 << 30;
+    /**
+     * bytes read at a time while looking for a line boundary
+     */
+    private static final int PROBE_SIZE = 8192;
+
+    /**
+     * Decodes the records of one chunk into primitive buffers.
+     */
+    private static class Chunk extends RecursiveAction implements WdgReader.Handler {
+        private static final long serialVersionUID = 1L;
+        /**
+         * the file being loaded
+         */
+        private final FileChannel channel;
+        /**
+         * offset of the first byte of the chunk
+         */
+        private final long start;
+        /**
+         * number of bytes of the chunk
+         */
+        private final int length;
+        /**
+         * failure of the task, rethrown after the join
+         */
+        private IOException failure;
+        /**
+         * number of vertex and edge records of the chunk
+         */
+        private int records;
+        /**
+         * key, record number and label of each n record
+         */
+        private int[] vertexKeys;
+        private int[] vertexRecords;
+        private String[] labels;
+        private int vertexCount;
+        /**
+         * endpoints, weight and record number of each e record
+         */
+        private int[] from;
+        private int[] to;
+        private double[] weights;
+        private int[] edgeRecords;
+        private int edgeCount;
+
+        /**
+         * Creates the task of a chunk
+         *
+         * @param vertexEstimate the expected number of n records
+         * @param edgeEstimate   the expected number of e records
+         */
+        Chunk(FileChannel channel, long start, int length, int vertexEstimate, int edgeEstimate) {
+            this.channel = channel;
+            this.start = start;
+            this.length = length;
+            vertexKeys = new int[vertexEstimate];
+            vertexRecords = new int[vertexEstimate];
+            labels = new String[vertexEstimate];
+            from = new int[edgeEstimate];
+            to = new int[edgeEstimate];
+            weights = new double[edgeEstimate];
+            edgeRecords = new int[edgeEstimate];
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                WdgReader.parse(buf, 0, length, this);
+            } catch (IOException exception) {
+                failure = exception;
+            }
+        }
+
+        @Override
+        public void header(int n, int m) {
+        }
+
+        @Override
+        public void vertex(int key, String label) {
+            if (vertexCount == vertexKeys.length) {
+                int capacity = 2 * vertexCount + 16;
+                vertexKeys = Arrays.copyOf(vertexKeys, capacity);
+                vertexRecords = Arrays.copyOf(vertexRecords, capacity);
+                labels = Arrays.copyOf(labels, capacity);
+            }
+            vertexKeys[vertexCount] = key;
+            vertexRecords[vertexCount] = records++;
+            labels[vertexCount] = label;
+            vertexCount++;
+        }
+
+        @Override
+        public void edge(int fromKey, int toKey, double weight) {
+            if (edgeCount == from.length) {
+                int capacity = 2 * edgeCount + 16;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                edgeRecords = Arrays.copyOf(edgeRecords, capacity);
+            }
+            from[edgeCount] = fromKey;
+            to[edgeCount] = toKey;
+            weights[edgeCount] = weight;
+            edgeRecords[edgeCount] = records++;
+            edgeCount++;
+        }
+    }
+
+    /**
+     * Turns the endpoint keys of the edges of one chunk into vertex
+     * indexes, or -1 for an edge that sequential insertion would drop.
+     */
+    private static class Resolve extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Chunk chunk;
+        private final long recordBase;
+        private final int[] keys;
+        private final long[] since;
+
+        /**
+         * Creates the task of a chunk
+         *
+         * @param recordBase number of records in the preceding chunks
+         * @param keys       the distinct vertex keys in increasing order
+         * @param since      record number of the first n record of each key
+         */
+        Resolve(Chunk chunk, long recordBase, int[] keys, long[] since) {
+            this.chunk = chunk;
+            this.recordBase = recordBase;
+            this.keys = keys;
+            this.since = since;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = 0; i < chunk.edgeCount; i++) {
+                long record = recordBase + chunk.edgeRecords[i];
+                int u = Arrays.binarySearch(keys, chunk.from[i]);
+                int v = Arrays.binarySearch(keys, chunk.to[i]);
+                if (u < 0 || v < 0 || since[u] > record || since[v] > record) {
+                    chunk.from[i] = -1;
+                    continue;
+                }
+                chunk.from[i] = u;
+                chunk.to[i] = v;
+            }
+        }
+    }
+
+    /**
+     * Loads the specified file on the common pool
+     *
+     * @param filename the name of the .wdg file
+     * @return a snapshot of the graph described by the file
+     * @throws IOException when the file cannot be read or is malformed
+     */
+    public static CsrGraph<City> load(String filename) throws IOException {
+        return load(Paths.get(filename), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads the specified file on the specified pool
+     *
+     * @param file the .wdg file
+     * @param pool the pool that runs the chunk tasks
+     * @return a snapshot of the graph described by the file
+     * @throws IOException when the file cannot be read or is malformed
+     */
+    public static CsrGraph<City> load(Path file, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int[] header = readHeader(channel, size);
+          /* a few chunks per worker keep the pool balanced */
+            long chunkSize = (size + 4L * pool.getParallelism() - 1) / (4L * pool.getParallelism());
+            chunkSize = Math.min(Math.max(chunkSize, MIN_CHUNK), MAX_CHUNK);
+            List<Chunk> chunks = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size);
+                if (end - start > Integer.MAX_VALUE)
+                    throw new IOException("Line too long at offset " + start);
+                double share = (double) (end - start) / size;
+                chunks.add(new Chunk(channel, start, (int) (end - start),
+                        (int) (header[0] * share) + 16, (int) (header[1] * share) + 16));
+                start = end;
+            }
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(chunks);
+                }
+            });
+            for (Chunk chunk : chunks)
+                if (chunk.failure != null)
+                    throw chunk.failure;
+            return merge(chunks, pool);
+        }
+    }
+
+    /**
+     * Reads the p record among the leading comment lines
+     *
+     * @return the announced vertex and edge counts, or zeros when the
+     * file does not start with a p record
+     */
+    private static int[] readHeader(FileChannel channel, long size) throws IOException {
+        final int[] header = new int[2];
+        int length = (int) Math.min(size, MAX_CHUNK);
+        if (length == 0)
+            return header;
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        int pos = 0;
+        while (pos < length) {
+            int lineEnd = pos;
+            while (lineEnd < length && buf.get(lineEnd) != '\n')
+                lineEnd++;
+            int first = pos;
+            while (first < lineEnd && (buf.get(first) == ' ' || buf.get(first) == '\t'))
+                first++;
+            byte b = first < lineEnd ? buf.get(first) : (byte) 'c';
+            if (b == 'p') {
+                WdgReader.parse(buf, pos, lineEnd, new WdgReader.Handler() {
+                    @Override
+                    public void header(int n, int m) {
+                        header[0] = Math.max(n, 0);
+                        header[1] = Math.max(m, 0);
+                    }
+
+                    @Override
+                    public void vertex(int key, String label) {
+                    }
+
+                    @Override
+                    public void edge(int fromKey, int toKey, double weight) {
+                    }
+                });
+                break;
+            }
+            if (b != 'c' && b != '\r')
+                break;
+            pos = lineEnd + 1;
+        }
+        return header;
+    }
+
+    /**
+     * Gives the offset of the first line starting at or after a position
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+      /* the byte before position may already end a line */
+        long pos = position - 1;
+        while (pos < size) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read <= 0)
+                break;
+            for (int i = 0; i < read; i++)
+                if (probe.get(i) == '\n')
+                    return pos + i + 1;
+            pos += read;
+        }
+        return size;
+    }
+
+    /**
+     * Merges the decoded chunks into a snapshot
+     */
+    private static CsrGraph<City> merge(List<Chunk> chunks, ForkJoinPool pool) {
+        long[] recordBase = new long[chunks.size()];
+        int vertexRecords = 0;
+        long records = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            recordBase[c] = records;
+            records += chunks.get(c).records;
+            vertexRecords += chunks.get(c).vertexCount;
+        }
+      /* sort the n records by key, then by position in the file */
+        long[] byKey = new long[vertexRecords];
+        long[] recordOf = new long[vertexRecords];
+        String[] labelOf = new String[vertexRecords];
+        int r = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            for (int i = 0; i < chunk.vertexCount; i++) {
+                byKey[r] = ((long) chunk.vertexKeys[i] << 32) | r;
+                recordOf[r] = recordBase[c] + chunk.vertexRecords[i];
+                labelOf[r] = chunk.labels[i];
+                r++;
+            }
+        }
+        Arrays.parallelSort(byKey);
+        int n = 0;
+        for (int i = 0; i < vertexRecords; i++)
+            if (i == 0 || (byKey[i] >>> 32) != (byKey[i - 1] >>> 32))
+                n++;
+        int[] keys = new int[n];
+        long[] since = new long[n];
+        City[] vertices = new City[n];
+        int v = -1;
+        for (int i = 0; i < vertexRecords; i++) {
+            int key = (int) (byKey[i] >> 32);
+            int record = (int) byKey[i];
+            if (v < 0 || keys[v] != key) {
+                v++;
+                keys[v] = key;
+                since[v] = recordOf[record];
+            }
+          /* a repeated n record replaces the label */
+            vertices[v] = new City(key, labelOf[record]);
+        }
+      /* resolve the endpoints of every chunk in parallel */
+        List<Resolve> resolves = new ArrayList<>();
+        for (int c = 0; c < chunks.size(); c++)
+            resolves.add(new Resolve(chunks.get(c), recordBase[c], keys, since));
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(resolves);
+            }
+        });
+      /* stable counting sort by source */
+        int[] offsets = new int[n + 1];
+        for (Chunk chunk : chunks)
+            for (int i = 0; i < chunk.edgeCount; i++)
+                if (chunk.from[i] >= 0)
+                    offsets[chunk.from[i] + 1]++;
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] += offsets[i];
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.edgeCount; i++) {
+                int u = chunk.from[i];
+                if (u < 0)
+                    continue;
+                targets[fill[u]] = chunk.to[i];
+                weights[fill[u]] = chunk.weights[i];
+                fill[u]++;
+            }
+        }
+      /* keep the first of several parallel edges */
+        int[] seenFrom = new int[n];
+        Arrays.fill(seenFrom, -1);
+        int kept = 0;
+        int begin = 0;
+        for (int u = 0; u < n; u++) {
+            int end = offsets[u + 1];
+            offsets[u] = kept;
+            for (int e = begin; e < end; e++) {
+                if (seenFrom[targets[e]] == u)
+                    continue;
+                seenFrom[targets[e]] = u;
+                targets[kept] = targets[e];
+                weights[kept] = weights[e];
+                kept++;
+            }
+            begin = end;
+        }
+        offsets[n] = kept;
+        if (kept < targets.length) {
+            targets = Arrays.copyOf(targets, kept);
+            weights = Arrays.copyOf(weights, kept);
+        }
+        return new CsrGraph<>(vertices, offsets, targets, weights);
+    }
+}
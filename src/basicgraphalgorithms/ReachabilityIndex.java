@@ -0,0 +1,312 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A reachability index over a CSR snapshot that answers most path
+ * queries in constant time. The graph is condensed into its strongly
+ * connected components, whose vertices all reach each other, and every
+ * component of the condensation gets LABELINGS interval labels (GRAIL,
+ * Yildirim et al.): the rank of the component in a randomized postorder
+ * and the smallest rank among its descendants. When a target is
+ * reachable its interval nests inside the interval of the source in
+ * every labeling, so a single failed containment proves there is no
+ * path. The topological numbering of the components rules out more
+ * pairs. Only when every test is inconclusive does a query run a
+ * bidirectional search of the condensation, which skips each component
+ * whose labels already exclude it. The index takes O(V + E) time and
+ * O(V) extra space to build; it describes the graph as it was when the
+ * index was built. Queries reuse the marks of the index, so one index
+ * must not be queried from several threads at once.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class ReachabilityIndex {
+    /**
+     * number of random interval labelings per component
+     */
+    private static final int LABELINGS = 3;
+
+    /**
+     * the components of the graph
+     */
+    private final StronglyConnectedComponents scc;
+    /**
+     * successors of each component in the condensation, in CSR form
+     */
+    private final int[] succOffsets;
+    private final int[] succ;
+    /**
+     * predecessors of each component in the condensation, in CSR form
+     */
+    private final int[] predOffsets;
+    private final int[] pred;
+    /**
+     * rank[i][c] is the postorder rank of component c in labeling i
+     */
+    private final int[][] rank;
+    /**
+     * low[i][c] is the smallest rank of a descendant of c in labeling i
+     */
+    private final int[][] low;
+    /**
+     * query in which each component was last reached forward
+     */
+    private final int[] forwardMark;
+    /**
+     * query in which each component was last reached backward
+     */
+    private final int[] backwardMark;
+    /**
+     * current query number
+     */
+    private int query;
+    /**
+     * search queues of the forward and backward fronts
+     */
+    private final int[] forwardQueue;
+    private final int[] backwardQueue;
+
+    /**
+     * Builds the index of the specified graph with a fixed seed
+     *
+     * @param graph a directed graph
+     */
+    public ReachabilityIndex(CsrGraph<?> graph) {
+        this(graph, new Random(1));
+    }
+
+    /**
+     * Builds the index of the specified graph
+     *
+     * @param graph  a directed graph
+     * @param random the source of the randomized traversal orders
+     */
+    public ReachabilityIndex(CsrGraph<?> graph, Random random) {
+        scc = new StronglyConnectedComponents(graph);
+        int n = graph.vertexCount();
+        int c = scc.count();
+      /* condense, dropping duplicate edges between components */
+        int[] lastAdded = new int[c];
+        Arrays.fill(lastAdded, -1);
+        int[] start = new int[c + 1];
+        for (int v = 0; v < n; v++)
+            start[scc.component(v) + 1]++;
+        for (int i = 0; i < c; i++)
+            start[i + 1] += start[i];
+        int[] members = new int[n];
+        int[] fill = start.clone();
+        for (int v = 0; v < n; v++)
+            members[fill[scc.component(v)]++] = v;
+        succOffsets = new int[c + 1];
+        int[] buffer = new int[graph.edgeCount()];
+        int edges = 0;
+        for (int i = 0; i < c; i++) {
+            for (int k = start[i]; k < start[i + 1]; k++) {
+                int v = members[k];
+                for (int e = graph.edgeBegin(v); e < graph.edgeEnd(v); e++) {
+                    int j = scc.component(graph.target(e));
+                    if (j == i || lastAdded[j] == i)
+                        continue;
+                    lastAdded[j] = i;
+                    buffer[edges++] = j;
+                }
+            }
+            succOffsets[i + 1] = edges;
+        }
+        succ = new int[edges];
+        System.arraycopy(buffer, 0, succ, 0, edges);
+        predOffsets = new int[c + 1];
+        for (int e = 0; e < edges; e++)
+            predOffsets[succ[e] + 1]++;
+        for (int i = 0; i < c; i++)
+            predOffsets[i + 1] += predOffsets[i];
+        pred = new int[edges];
+        fill = predOffsets.clone();
+        for (int i = 0; i < c; i++)
+            for (int e = succOffsets[i]; e < succOffsets[i + 1]; e++)
+                pred[fill[succ[e]]++] = i;
+      /* label */
+        rank = new int[LABELINGS][];
+        low = new int[LABELINGS][];
+        for (int i = 0; i < LABELINGS; i++) {
+            rank[i] = randomPostorder(random);
+            low[i] = lows(rank[i]);
+        }
+        forwardMark = new int[c];
+        backwardMark = new int[c];
+        forwardQueue = new int[c];
+        backwardQueue = new int[c];
+    }
+
+    /**
+     * Ranks the components in the postorder of a depth-first search of
+     * the condensation that starts from the sources in random order and
+     * scans each successor list from a random position
+     *
+     * @return the rank of each component
+     */
+    private int[] randomPostorder(Random random) {
+        int c = scc.count();
+        int[] post = new int[c];
+        Arrays.fill(post, -1);
+        boolean[] seen = new boolean[c];
+        int[] roots = new int[c];
+        int rootCount = 0;
+        for (int i = 0; i < c; i++)
+            if (predOffsets[i] == predOffsets[i + 1])
+                roots[rootCount++] = i;
+        for (int k = rootCount - 1; k > 0; k--) {
+            int r = random.nextInt(k + 1);
+            int tmp = roots[k];
+            roots[k] = roots[r];
+            roots[r] = tmp;
+        }
+        int[] stack = new int[c];
+        int[] first = new int[c];
+        int[] scanned = new int[c];
+        int next = 0;
+        for (int k = 0; k < rootCount; k++) {
+            int top = 0;
+            stack[0] = roots[k];
+            seen[roots[k]] = true;
+            first[0] = randomStart(roots[k], random);
+            scanned[0] = 0;
+            while (top >= 0) {
+                int x = stack[top];
+                int degree = succOffsets[x + 1] - succOffsets[x];
+                if (scanned[top] < degree) {
+                    int y = succ[succOffsets[x] + (first[top] + scanned[top]) % degree];
+                    scanned[top]++;
+                    if (!seen[y]) {
+                        seen[y] = true;
+                        top++;
+                        stack[top] = y;
+                        first[top] = randomStart(y, random);
+                        scanned[top] = 0;
+                    }
+                    continue;
+                }
+                post[x] = next++;
+                top--;
+            }
+        }
+        return post;
+    }
+
+    /**
+     * Picks the successor of a component that its scan starts from
+     */
+    private int randomStart(int x, Random random) {
+        int degree = succOffsets[x + 1] - succOffsets[x];
+        return degree > 1 ? random.nextInt(degree) : 0;
+    }
+
+    /**
+     * Gives the smallest rank among the descendants of each component;
+     * successors have smaller component numbers, so they are done first
+     */
+    private int[] lows(int[] post) {
+        int c = post.length;
+        int[] result = new int[c];
+        for (int x = 0; x < c; x++) {
+            int min = post[x];
+            for (int e = succOffsets[x]; e < succOffsets[x + 1]; e++)
+                min = Math.min(min, result[succ[e]]);
+            result[x] = min;
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether every label of component y nests inside the
+     * corresponding label of component x, which holds whenever x
+     * reaches y
+     */
+    private boolean contains(int x, int y) {
+        for (int i = 0; i < LABELINGS; i++)
+            if (low[i][y] < low[i][x] || rank[i][y] > rank[i][x])
+                return false;
+        return true;
+    }
+
+    /**
+     * Gives the strongly connected components the index was built on
+     *
+     * @return the components of the graph
+     */
+    public StronglyConnectedComponents components() {
+        return scc;
+    }
+
+    /**
+     * Determines whether there is a path between two vertices; every
+     * vertex reaches itself
+     *
+     * @param from index of the originating vertex
+     * @param to   index of the destination vertex
+     * @return true when to is reachable from from; otherwise, false.
+     */
+    public boolean reachable(int from, int to) {
+        int s = scc.component(from);
+        int t = scc.component(to);
+        if (s == t)
+            return true;
+      /* edges lead to smaller component numbers */
+        if (s < t || !contains(s, t))
+            return false;
+        return search(s, t);
+    }
+
+    /**
+     * Searches the condensation from both ends at once, expanding the
+     * smaller front first. The forward front only enters components
+     * whose labels contain t and that can still lie above t, the
+     * backward front only those whose labels s contains and that can
+     * still lie below s.
+     */
+    private boolean search(int s, int t) {
+        if (query == Integer.MAX_VALUE) {
+            Arrays.fill(forwardMark, 0);
+            Arrays.fill(backwardMark, 0);
+            query = 0;
+        }
+        query++;
+        int fHead = 0;
+        int fTail = 0;
+        int bHead = 0;
+        int bTail = 0;
+        forwardQueue[fTail++] = s;
+        forwardMark[s] = query;
+        backwardQueue[bTail++] = t;
+        backwardMark[t] = query;
+        while (fHead < fTail && bHead < bTail) {
+            if (fTail - fHead <= bTail - bHead) {
+                int x = forwardQueue[fHead++];
+                for (int e = succOffsets[x]; e < succOffsets[x + 1]; e++) {
+                    int y = succ[e];
+                    if (backwardMark[y] == query)
+                        return true;
+                    if (forwardMark[y] == query || y < t || !contains(y, t))
+                        continue;
+                    forwardMark[y] = query;
+                    forwardQueue[fTail++] = y;
+                }
+            } else {
+                int y = backwardQueue[bHead++];
+                for (int e = predOffsets[y]; e < predOffsets[y + 1]; e++) {
+                    int x = pred[e];
+                    if (forwardMark[x] == query)
+                        return true;
+                    if (backwardMark[x] == query || x > s || !contains(s, x))
+                        continue;
+                    backwardMark[x] = query;
+                    backwardQueue[bTail++] = x;
+                }
+            }
+        }
+        return false;
+    }
+}
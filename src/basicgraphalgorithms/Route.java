@@ -0,0 +1,120 @@
+package basicgraphalgorithms;
+
+import java.util.function.Function;
+
+/**
+ * The result of a point-to-point shortest path query: the total distance
+ * and the vertices of the path, leg by leg, in a CSR snapshot.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class Route<E extends Comparable<E>> {
+    /**
+     * the graph the path belongs to
+     */
+    private final CsrGraph<E> graph;
+    /**
+     * vertex indices from the source to the destination
+     */
+    private final int[] path;
+    /**
+     * length of the path
+     */
+    private final double distance;
+
+    /**
+     * Creates a route along the specified vertices
+     *
+     * @param graph    the graph the path belongs to
+     * @param path     vertex indices from the source to the destination,
+     *                 empty when there is no path
+     * @param distance length of the path, infinite when there is no path
+     */
+    Route(CsrGraph<E> graph, int[] path, double distance) {
+        this.graph = graph;
+        this.path = path;
+        this.distance = distance;
+    }
+
+    /**
+     * Determines whether the destination is reachable from the source
+     *
+     * @return true when there is a path; otherwise, false.
+     */
+    public boolean exists() {
+        return path.length > 0;
+    }
+
+    /**
+     * Gives the length of the route
+     *
+     * @return the total distance, infinite when there is no path
+     */
+    public double distance() {
+        return distance;
+    }
+
+    /**
+     * Gives the vertices along the route
+     *
+     * @return a copy of the vertex indices from source to destination
+     */
+    public int[] path() {
+        return path.clone();
+    }
+
+    /**
+     * Gives the number of edges along the route
+     *
+     * @return the number of legs
+     */
+    public int legCount() {
+        return Math.max(path.length - 1, 0);
+    }
+
+    /**
+     * Gives the originating vertex of a leg
+     *
+     * @param leg the position of the leg, starting at 0
+     * @return the data item of the originating vertex
+     */
+    public E from(int leg) {
+        return graph.vertexAt(path[leg]);
+    }
+
+    /**
+     * Gives the destination vertex of a leg
+     *
+     * @param leg the position of the leg, starting at 0
+     * @return the data item of the destination vertex
+     */
+    public E to(int leg) {
+        return graph.vertexAt(path[leg + 1]);
+    }
+
+    /**
+     * Gives the weight of a leg
+     *
+     * @param leg the position of the leg, starting at 0
+     * @return the weight on the edge of the leg
+     */
+    public double legWeight(int leg) {
+        return graph.weight(graph.edgeIndex(path[leg], path[leg + 1]));
+    }
+
+    /**
+     * Formats the legs of the route one per line, as the shortest-path
+     * option of the demo prints them.
+     *
+     * @param label gives the text printed for a vertex
+     * @return the legs of the route
+     */
+    public String format(Function<? super E, String> label) {
+        StringBuilder legs = new StringBuilder();
+        for (int i = 0; i < legCount(); i++)
+            legs.append(String.format("%-20s->%-20s%.02f%n", label.apply(from(i)), label.apply(to(i)), legWeight(i)));
+        return legs.toString();
+    }
+}
@@ -0,0 +1,225 @@
+package basicgraphalgorithms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of shortest-path trees keyed by source vertex. Route
+ * queries tend to come from a few hub sources, so the complete tree of
+ * each source is kept after its first query and later queries from the
+ * same source become array lookups. At most capacity trees are kept;
+ * when another one is needed the least recently used tree is evicted.
+ * The trees are computed with Dijkstra's algorithm over a snapshot of
+ * the graph. Before each lookup the modification count of the graph is
+ * compared with the one of the snapshot, and when the graph has changed
+ * the snapshot is taken again and every cached tree is dropped.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class ShortestPathCache<E extends Comparable<E>> {
+    /**
+     * the graph whose shortest paths are cached
+     */
+    private final Graph<E> graph;
+    /**
+     * maximum number of trees kept
+     */
+    private final int capacity;
+    /**
+     * modification count of the graph when the snapshot was taken
+     */
+    private long version;
+    /**
+     * engine over the current snapshot of the graph
+     */
+    private ShortestPaths<E> engine;
+    /**
+     * the cached trees by source index, least recently used first
+     */
+    private final LinkedHashMap<Integer, Tree> trees;
+    /**
+     * number of lookups answered from the cache
+     */
+    private long hits;
+    /**
+     * number of lookups that had to run Dijkstra's algorithm
+     */
+    private long misses;
+
+    /**
+     * The shortest paths from one source to every vertex of a snapshot.
+     */
+    public static final class Tree {
+        /**
+         * index of the source vertex
+         */
+        private final int source;
+        /**
+         * distance of each vertex from the source
+         */
+        private final double[] dist;
+        /**
+         * predecessor of each vertex on its shortest path, or -1
+         */
+        private final int[] pred;
+
+        private Tree(int source, double[] dist, int[] pred) {
+            this.source = source;
+            this.dist = dist;
+            this.pred = pred;
+        }
+
+        /**
+         * Gives the source of this tree
+         *
+         * @return index of the source vertex
+         */
+        public int source() {
+            return source;
+        }
+
+        /**
+         * Gives the distance of a vertex from the source
+         *
+         * @param v index of a vertex
+         * @return the length of a shortest path, infinite when v is not
+         * reachable
+         */
+        public double distance(int v) {
+            return dist[v];
+        }
+
+        /**
+         * Gives the predecessor of a vertex on its shortest path
+         *
+         * @param v index of a vertex
+         * @return index of the predecessor, or -1 for the source and
+         * unreachable vertices
+         */
+        public int predecessor(int v) {
+            return pred[v];
+        }
+
+        /**
+         * Gives the vertices along the shortest path to a target
+         *
+         * @param target index of the destination vertex
+         * @return the vertex indices from the source to the target, or
+         * an empty array when the target is not reachable
+         */
+        public int[] path(int target) {
+            if (dist[target] == Double.POSITIVE_INFINITY)
+                return new int[0];
+            int count = 1;
+            for (int v = target; pred[v] >= 0; v = pred[v])
+                count++;
+            int[] path = new int[count];
+            for (int v = target; v >= 0; v = pred[v])
+                path[--count] = v;
+            return path;
+        }
+    }
+
+    /**
+     * Creates a cache for the specified graph
+     *
+     * @param graph    a weighted directed graph with non-negative weights
+     * @param capacity the maximum number of trees kept
+     */
+    public ShortestPathCache(Graph<E> graph, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive - ShortestPathCache().");
+        this.graph = graph;
+        this.capacity = capacity;
+        trees = new LinkedHashMap<Integer, Tree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Tree> eldest) {
+                return size() > ShortestPathCache.this.capacity;
+            }
+        };
+        refresh();
+    }
+
+    /**
+     * Takes a new snapshot and drops the cached trees when the graph has
+     * changed since the last snapshot
+     */
+    private void refresh() {
+        if (engine != null && version == graph.modCount())
+            return;
+        version = graph.modCount();
+        engine = new ShortestPaths<>(graph.freeze());
+        trees.clear();
+    }
+
+    /**
+     * Gives the snapshot the cached trees refer to, taking a new one when
+     * the graph has changed
+     *
+     * @return the current snapshot of the graph
+     */
+    public CsrGraph<E> graph() {
+        refresh();
+        return engine.graph();
+    }
+
+    /**
+     * Gives the shortest-path tree of a source vertex
+     *
+     * @param source the key of the source vertex
+     * @return the tree, whose vertex indices refer to graph()
+     * @throws GraphException when the source does not exist
+     */
+    public Tree tree(E source) throws GraphException {
+        refresh();
+        int s = engine.graph().indexOf(source);
+        if (s < 0)
+            throw new GraphException("Non-existent vertex - tree().");
+        Tree tree = trees.get(s);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        engine.run(s);
+        int n = engine.graph().vertexCount();
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        for (int v = 0; v < n; v++) {
+            dist[v] = engine.distance(v);
+            pred[v] = engine.predecessor(v);
+        }
+        tree = new Tree(s, dist, pred);
+        trees.put(s, tree);
+        return tree;
+    }
+
+    /**
+     * Gives the number of trees currently cached
+     *
+     * @return the number of cached trees
+     */
+    public int size() {
+        return trees.size();
+    }
+
+    /**
+     * Gives the number of lookups answered from the cache
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return hits;
+    }
+
+    /**
+     * Gives the number of lookups that computed a new tree
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return misses;
+    }
+}
@@ -0,0 +1,211 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's single-source shortest path algorithm over a CSR snapshot
+ * using an indexed binary heap, so a query costs O((V + E) log V). The
+ * engine owns its distance, predecessor and heap arrays and reuses them
+ * from one query to the next; only the vertices touched by the previous
+ * query are reset. The edge weights must be non-negative.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class ShortestPaths<E extends Comparable<E>> {
+    /**
+     * the graph being searched
+     */
+    private final CsrGraph<E> graph;
+    /**
+     * tentative distance of each vertex from the source
+     */
+    private final double[] dist;
+    /**
+     * predecessor of each vertex on its shortest path, or -1
+     */
+    private final int[] pred;
+    /**
+     * whether the distance of a vertex is final
+     */
+    private final boolean[] settled;
+    /**
+     * vertices whose state must be reset before the next query
+     */
+    private final int[] touched;
+    /**
+     * number of entries used in touched
+     */
+    private int touchedCount;
+    /**
+     * the priority queue of the search frontier
+     */
+    private final IndexedMinHeap heap;
+    /**
+     * source of the last query, or -1
+     */
+    private int source;
+
+    /**
+     * Creates an engine for the specified graph
+     *
+     * @param graph a weighted directed graph with non-negative weights
+     */
+    public ShortestPaths(CsrGraph<E> graph) {
+        int n = graph.vertexCount();
+        this.graph = graph;
+        dist = new double[n];
+        pred = new int[n];
+        settled = new boolean[n];
+        touched = new int[n];
+        heap = new IndexedMinHeap(n);
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(pred, -1);
+        touchedCount = 0;
+        source = -1;
+    }
+
+    /**
+     * Gives the graph searched by this engine
+     *
+     * @return the graph of this engine
+     */
+    public CsrGraph<E> graph() {
+        return graph;
+    }
+
+    /**
+     * Computes the shortest paths from a source to every vertex
+     *
+     * @param source index of the source vertex
+     * @throws GraphException when the source does not exist
+     */
+    public void run(int source) throws GraphException {
+        run(source, -1);
+    }
+
+    /**
+     * Computes shortest paths from a source, stopping as soon as the
+     * distance of the target is final. When the search stops early only
+     * the settled vertices have final distances.
+     *
+     * @param source index of the source vertex
+     * @param target index of the destination vertex, or -1 to settle
+     *               every reachable vertex
+     * @return the distance to the target, infinite when it is not
+     * reachable or no target was given
+     * @throws GraphException when the source or the target does not exist
+     */
+    public double run(int source, int target) throws GraphException {
+        int n = graph.vertexCount();
+        if (source < 0 || source >= n)
+            throw new GraphException("Non-existent vertex - run().");
+        if (target < -1 || target >= n)
+            throw new GraphException("Non-existent vertex - run().");
+        reset();
+        this.source = source;
+        dist[source] = 0;
+        touch(source);
+        heap.push(source, 0);
+        while (!heap.isEmpty()) {
+            int v = heap.poll();
+            settled[v] = true;
+            if (v == target)
+                break;
+            double d = dist[v];
+            for (int e = graph.edgeBegin(v); e < graph.edgeEnd(v); e++) {
+                int w = graph.target(e);
+                double newDist = d + graph.weight(e);
+                if (newDist < dist[w]) {
+                    if (dist[w] == Double.POSITIVE_INFINITY)
+                        touch(w);
+                    dist[w] = newDist;
+                    pred[w] = v;
+                    heap.push(w, newDist);
+                }
+            }
+        }
+        heap.clear();
+        return target < 0 ? Double.POSITIVE_INFINITY : dist[target];
+    }
+
+    /**
+     * Gives the source of the last query
+     *
+     * @return index of the source vertex, or -1 before the first query
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * Gives the distance of a vertex found by the last query
+     *
+     * @param v index of a vertex
+     * @return the distance from the source, infinite when v was not reached
+     */
+    public double distance(int v) {
+        return dist[v];
+    }
+
+    /**
+     * Gives the predecessor of a vertex on its shortest path
+     *
+     * @param v index of a vertex
+     * @return index of the predecessor, or -1 for the source and
+     * unreached vertices
+     */
+    public int predecessor(int v) {
+        return pred[v];
+    }
+
+    /**
+     * Determines whether the distance of a vertex is final
+     *
+     * @param v index of a vertex
+     * @return true when the last query settled v; otherwise, false.
+     */
+    public boolean isSettled(int v) {
+        return settled[v];
+    }
+
+    /**
+     * Gives the vertices along the shortest path to a settled target
+     *
+     * @param target index of the destination vertex
+     * @return the vertex indices from the source to the target, or an
+     * empty array when the target was not settled by the last query
+     */
+    public int[] path(int target) {
+        if (!settled[target])
+            return new int[0];
+        int count = 1;
+        for (int v = target; pred[v] >= 0; v = pred[v])
+            count++;
+        int[] path = new int[count];
+        for (int v = target; v >= 0; v = pred[v])
+            path[--count] = v;
+        return path;
+    }
+
+    /**
+     * Records a vertex whose state the next query must reset
+     */
+    private void touch(int v) {
+        touched[touchedCount++] = v;
+    }
+
+    /**
+     * Restores the state touched by the previous query
+     */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            dist[v] = Double.POSITIVE_INFINITY;
+            pred[v] = -1;
+            settled[v] = false;
+        }
+        touchedCount = 0;
+    }
+}
@@ -0,0 +1,117 @@
+package basicgraphalgorithms;
+
+import java.util.Arrays;
+
+/**
+ * The strongly connected components of a CSR snapshot, found with an
+ * iterative version of Tarjan's algorithm in O(V + E) time and without
+ * recursion. Components are numbered in the order Tarjan's algorithm
+ * completes them, which is a reverse topological order of the
+ * condensation: every edge between two components goes from the larger
+ * component number to the smaller one.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class StronglyConnectedComponents {
+    /**
+     * component number of each vertex
+     */
+    private final int[] component;
+    /**
+     * number of components
+     */
+    private final int count;
+
+    /**
+     * Finds the strongly connected components of the specified graph
+     *
+     * @param graph a directed graph
+     */
+    public StronglyConnectedComponents(CsrGraph<?> graph) {
+        int n = graph.vertexCount();
+        component = new int[n];
+        Arrays.fill(component, -1);
+        int[] index = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(index, -1);
+        int[] sccStack = new int[n];
+        int sccTop = 0;
+        int[] callStack = new int[n];
+        int[] cursor = new int[n];
+        int nextIndex = 0;
+        int components = 0;
+        for (int s = 0; s < n; s++) {
+            if (index[s] >= 0)
+                continue;
+            int top = 0;
+            callStack[0] = s;
+            cursor[0] = graph.edgeBegin(s);
+            index[s] = low[s] = nextIndex++;
+            sccStack[sccTop++] = s;
+            while (top >= 0) {
+                int v = callStack[top];
+                int e = cursor[top];
+                if (e < graph.edgeEnd(v)) {
+                    cursor[top] = e + 1;
+                    int w = graph.target(e);
+                    if (index[w] < 0) {
+                      /* descend into w */
+                        index[w] = low[w] = nextIndex++;
+                        sccStack[sccTop++] = w;
+                        top++;
+                        callStack[top] = w;
+                        cursor[top] = graph.edgeBegin(w);
+                    } else if (component[w] < 0) {
+                      /* w is still on the component stack */
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+              /* v is finished: pop its component if it is a root */
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = sccStack[--sccTop];
+                        component[w] = components;
+                    } while (w != v);
+                    components++;
+                }
+                top--;
+                if (top >= 0) {
+                    int parent = callStack[top];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        count = components;
+    }
+
+    /**
+     * Gives the number of strongly connected components
+     *
+     * @return the number of components
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Gives the component of a vertex
+     *
+     * @param v a vertex index
+     * @return the component number of v
+     */
+    public int component(int v) {
+        return component[v];
+    }
+
+    /**
+     * Gives the component of every vertex
+     *
+     * @return a copy of the component numbers indexed by vertex
+     */
+    public int[] components() {
+        return component.clone();
+    }
+}
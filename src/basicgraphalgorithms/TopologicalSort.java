@@ -0,0 +1,82 @@
+package basicgraphalgorithms;
+
+/**
+ * Reverse topological labeling of a CSR snapshot by the decrease-and-conquer
+ * algorithm that successively removes a vertex of out-degree 0. Among the
+ * vertices of out-degree 0 the one with the smallest index is always
+ * removed first, and removing a vertex decrements the out-degree of its
+ * in-neighbors through the transpose, so the labeling costs
+ * O((V + E) log V) instead of rescanning every vertex after each removal.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class TopologicalSort {
+    /**
+     * the removed vertices in removal order
+     */
+    private final int[] order;
+    /**
+     * number of vertices removed
+     */
+    private final int removed;
+
+    /**
+     * Labels the vertices of the specified graph
+     *
+     * @param graph a directed graph
+     */
+    public TopologicalSort(CsrGraph<?> graph) {
+        int n = graph.vertexCount();
+        CsrGraph<?> reverse = graph.transpose();
+        int[] outDegree = new int[n];
+        IndexedMinHeap ready = new IndexedMinHeap(n);
+        for (int v = 0; v < n; v++) {
+            outDegree[v] = graph.edgeEnd(v) - graph.edgeBegin(v);
+            if (outDegree[v] == 0)
+                ready.push(v, v);
+        }
+        order = new int[n];
+        int count = 0;
+        while (!ready.isEmpty()) {
+            int v = ready.poll();
+            order[count++] = v;
+            for (int e = reverse.edgeBegin(v); e < reverse.edgeEnd(v); e++) {
+                int u = reverse.target(e);
+                if (--outDegree[u] == 0)
+                    ready.push(u, u);
+            }
+        }
+        removed = count;
+    }
+
+    /**
+     * Determines whether every vertex was removed, that is whether the
+     * graph has no directed cycle
+     *
+     * @return true if a topological ordering exists; otherwise, false.
+     */
+    public boolean isAcyclic() {
+        return removed == order.length;
+    }
+
+    /**
+     * Gives the number of vertices removed before the algorithm stopped
+     *
+     * @return the number of labeled vertices
+     */
+    public int labeledCount() {
+        return removed;
+    }
+
+    /**
+     * Gives the vertex removed at the specified step; every edge goes
+     * from a vertex removed later to one removed earlier
+     *
+     * @param i a step, smaller than labeledCount()
+     * @return the index of the vertex removed at step i
+     */
+    public int vertexAt(int i) {
+        return order[i];
+    }
+}
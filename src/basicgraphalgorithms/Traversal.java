@@ -0,0 +1,73 @@
+package basicgraphalgorithms;
+
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy traversal of the vertices reachable from a start vertex. Each
+ * step visits one more vertex, so a search can stop as soon as it finds
+ * what it is looking for, either by calling tryAdvance directly or
+ * through a short-circuiting stream operation such as findFirst or
+ * limit. After each step depth() and parent() describe the vertex just
+ * visited, so no per-vertex wrapper is created. The graph must not be
+ * modified while a traversal is in progress.
+ * <p>
+ * A traversal holds marks borrowed from its graph until it runs to the
+ * end or is closed. A traversal that may be abandoned early should be
+ * opened in a try-with-resources statement, or consumed through
+ * stream() inside one:
+ * <pre>
+ * try (Stream&lt;City&gt; cities = graph.bfs(start).stream()) {
+ *     found = cities.filter(c -&gt; c.getKey().equals(key)).findFirst();
+ * }
+ * </pre>
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public interface Traversal<E> extends Spliterator<E>, AutoCloseable {
+    /**
+     * Gives the depth of the vertex visited last, that is the number of
+     * tree edges between it and the start vertex
+     *
+     * @return 0 for the start vertex, or the depth in the search tree
+     */
+    int depth();
+
+    /**
+     * Gives the vertex through which the vertex visited last was reached
+     *
+     * @return the data of the parent in the search tree, or null for the
+     * start vertex
+     */
+    E parent();
+
+    /**
+     * Ends this traversal and returns its marks to the graph. Later
+     * steps visit nothing; closing again has no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * Gives a sequential stream over the remaining vertices of this
+     * traversal; closing the stream closes the traversal
+     *
+     * @return a lazy stream of the data items in visiting order
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(this, false).onClose(this::close);
+    }
+
+    @Override
+    default Spliterator<E> trySplit() {
+        return null;
+    }
+
+    @Override
+    default int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+}
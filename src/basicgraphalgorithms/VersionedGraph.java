@@ -0,0 +1,641 @@
+package basicgraphalgorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Multi-version weighted digraph for read-mostly workloads. Every state
+ * of the graph is an immutable Snapshot; readers obtain the current one
+ * with a single volatile read and never block. Writers group mutations
+ * in a Batch, which works on a private copy and is published atomically
+ * with a new version number when it completes.
+ * <p>
+ * The vertices of a snapshot live in a persistent AVL tree ordered by
+ * key, and each vertex record holds its out-edges as arrays of
+ * destination keys and weights. A mutation copies only the records it
+ * changes and the O(log V) tree nodes above them, so consecutive
+ * versions share everything else. Mutations follow the same rules as
+ * Graph: an existing key is updated in place, a vertex with edges is not
+ * deleted, and the first edge between two vertices wins.
+ *
+ * @param <E> the data type
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class VersionedGraph<E extends Comparable<E>> implements GraphAPI<E> {
+    /**
+     * the latest published version
+     */
+    private volatile Snapshot<E> current;
+    /**
+     * serializes the writers
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * An immutable vertex record: the data item, its out-edges in
+     * insertion order and its in-degree.
+     */
+    private static final class Vertex<E> {
+        /**
+         * the data item
+         */
+        final E data;
+        /**
+         * keys of the destination vertices
+         */
+        final E[] targets;
+        /**
+         * weight on each out-edge
+         */
+        final double[] weights;
+        /**
+         * in-degree
+         */
+        final int inDeg;
+
+        Vertex(E data, E[] targets, double[] weights, int inDeg) {
+            this.data = data;
+            this.targets = targets;
+            this.weights = weights;
+            this.inDeg = inDeg;
+        }
+    }
+
+    /**
+     * An immutable node of the AVL tree of vertex records.
+     */
+    private static final class Node<E> {
+        /**
+         * the vertex record
+         */
+        final Vertex<E> vertex;
+        /**
+         * subtrees of smaller and larger keys
+         */
+        final Node<E> left;
+        final Node<E> right;
+        /**
+         * height of the subtree rooted here
+         */
+        final int height;
+
+        Node(Vertex<E> vertex, Node<E> left, Node<E> right) {
+            this.vertex = vertex;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    /**
+     * Constructs an empty versioned graph at version 0
+     */
+    public VersionedGraph() {
+        current = new Snapshot<>(null, 0, 0, 0);
+    }
+
+    /**
+     * Gives the latest version of the graph
+     *
+     * @return the current snapshot
+     */
+    public Snapshot<E> snapshot() {
+        return current;
+    }
+
+    /**
+     * Gives the number of the latest version; it grows by one with each
+     * update that changes the graph
+     *
+     * @return the current version number
+     */
+    public long version() {
+        return current.version;
+    }
+
+    /**
+     * Applies a group of mutations and publishes the result as one new
+     * version. Readers see either none or all of the mutations.
+     *
+     * @param changes applies the mutations to the batch it receives
+     * @return the snapshot published by the update
+     */
+    public Snapshot<E> update(Consumer<? super Batch<E>> changes) {
+        synchronized (writeLock) {
+            Snapshot<E> base = current;
+            Batch<E> batch = new Batch<>(base);
+            changes.accept(batch);
+            if (batch.changed)
+                current = new Snapshot<>(batch.root, batch.order, batch.edgeCount, base.version + 1);
+            return current;
+        }
+    }
+
+    /**
+     * Mutations applied to a private version of the graph.
+     *
+     * @param <E> the data type
+     */
+    public static final class Batch<E extends Comparable<E>> {
+        /**
+         * root of the private tree
+         */
+        private Node<E> root;
+        /**
+         * number of vertices
+         */
+        private int order;
+        /**
+         * number of edges
+         */
+        private long edgeCount;
+        /**
+         * whether any mutation took effect
+         */
+        private boolean changed;
+
+        private Batch(Snapshot<E> base) {
+            root = base.root;
+            order = base.order;
+            edgeCount = base.edgeCount;
+        }
+
+        /**
+         * Inserts a vertex, or updates the data of an existing key
+         *
+         * @param data - data stored in a vertex.
+         */
+        public void insertVertex(E data) {
+            Vertex<E> old = find(root, data);
+            if (old == null) {
+                root = put(root, new Vertex<>(data, CsrGraph.<E>newKeyArray(0), new double[0], 0));
+                order++;
+            } else
+                root = put(root, new Vertex<>(data, old.targets, old.weights, old.inDeg));
+            changed = true;
+        }
+
+        /**
+         * Deletes a vertex whose in-degree and out-degree are both 0
+         *
+         * @param key - search key of the vertex.
+         */
+        public void deleteVertex(E key) {
+            Vertex<E> old = find(root, key);
+            if (old == null || old.inDeg > 0 || old.targets.length > 0)
+                return;
+            root = remove(root, key);
+            order--;
+            changed = true;
+        }
+
+        /**
+         * Inserts an edge when both keys exist and the edge does not
+         *
+         * @param fromKey - data of the originating vertex.
+         * @param toKey   - data of the destination vertex.
+         * @param weight  - weight of the edge.
+         */
+        public void insertEdge(E fromKey, E toKey, double weight) {
+            Vertex<E> from = find(root, fromKey);
+            Vertex<E> to = find(root, toKey);
+            if (from == null || to == null || indexOfTarget(from, toKey) >= 0)
+                return;
+            int deg = from.targets.length;
+            E[] targets = Arrays.copyOf(from.targets, deg + 1);
+            double[] weights = Arrays.copyOf(from.weights, deg + 1);
+            targets[deg] = to.data;
+            weights[deg] = weight;
+            int inDeg = from == to ? from.inDeg + 1 : from.inDeg;
+            root = put(root, new Vertex<>(from.data, targets, weights, inDeg));
+            if (from != to)
+                root = put(root, new Vertex<>(to.data, to.targets, to.weights, to.inDeg + 1));
+            edgeCount++;
+            changed = true;
+        }
+
+        /**
+         * Removes an edge when it exists
+         *
+         * @param fromKey - search key of the originating vertex.
+         * @param toKey   - search key of the destination vertex.
+         */
+        public void deleteEdge(E fromKey, E toKey) {
+            Vertex<E> from = find(root, fromKey);
+            Vertex<E> to = find(root, toKey);
+            if (from == null || to == null)
+                return;
+            int i = indexOfTarget(from, toKey);
+            if (i < 0)
+                return;
+            int deg = from.targets.length;
+            E[] targets = Arrays.copyOf(from.targets, deg - 1);
+            double[] weights = Arrays.copyOf(from.weights, deg - 1);
+            System.arraycopy(from.targets, i + 1, targets, i, deg - 1 - i);
+            System.arraycopy(from.weights, i + 1, weights, i, deg - 1 - i);
+            int inDeg = from == to ? from.inDeg - 1 : from.inDeg;
+            root = put(root, new Vertex<>(from.data, targets, weights, inDeg));
+            if (from != to)
+                root = put(root, new Vertex<>(to.data, to.targets, to.weights, to.inDeg - 1));
+            edgeCount--;
+            changed = true;
+        }
+    }
+
+    /**
+     * An immutable version of the graph. Besides the lookups of the
+     * GraphAPI it offers a CSR snapshot, built on first use, on which the
+     * traversals run.
+     *
+     * @param <E> the data type
+     */
+    public static final class Snapshot<E extends Comparable<E>> implements GraphAPI<E> {
+        /**
+         * root of the tree of vertex records
+         */
+        private final Node<E> root;
+        /**
+         * number of vertices
+         */
+        private final int order;
+        /**
+         * number of edges
+         */
+        private final long edgeCount;
+        /**
+         * version number
+         */
+        private final long version;
+        /**
+         * CSR form of this version, built on first use
+         */
+        private volatile CsrGraph<E> frozen;
+
+        private Snapshot(Node<E> root, int order, long edgeCount, long version) {
+            this.root = root;
+            this.order = order;
+            this.edgeCount = edgeCount;
+            this.version = version;
+        }
+
+        /**
+         * Gives the version number of this snapshot
+         *
+         * @return the version number
+         */
+        public long version() {
+            return version;
+        }
+
+        /**
+         * Gives this version as a compressed sparse row graph
+         *
+         * @return the CSR form of this version
+         */
+        public CsrGraph<E> freeze() {
+            CsrGraph<E> csr = frozen;
+            if (csr == null) {
+                csr = buildCsr();
+                frozen = csr;
+            }
+            return csr;
+        }
+
+        /**
+         * Lays out the tree in key order as CSR arrays
+         */
+        private CsrGraph<E> buildCsr() {
+            ArrayList<Vertex<E>> records = new ArrayList<>(order);
+            inorder(root, records);
+            E[] vertices = CsrGraph.newKeyArray(order);
+            for (int i = 0; i < order; i++)
+                vertices[i] = records.get(i).data;
+            int[] offsets = new int[order + 1];
+            for (int i = 0; i < order; i++)
+                offsets[i + 1] = offsets[i] + records.get(i).targets.length;
+            int[] targets = new int[offsets[order]];
+            double[] weights = new double[offsets[order]];
+            for (int i = 0; i < order; i++) {
+                Vertex<E> v = records.get(i);
+                for (int j = 0; j < v.targets.length; j++) {
+                    targets[offsets[i] + j] = Arrays.binarySearch(vertices, v.targets[j]);
+                    weights[offsets[i] + j] = v.weights[j];
+                }
+            }
+            return new CsrGraph<>(vertices, offsets, targets, weights);
+        }
+
+        @Override
+        public void insertVertex(E data) {
+            throw new UnsupportedOperationException("Immutable graph - insertVertex().");
+        }
+
+        @Override
+        public void deleteVertex(E key) {
+            throw new UnsupportedOperationException("Immutable graph - deleteVertex().");
+        }
+
+        @Override
+        public void insertEdge(E fromKey, E toKey, Double weight) {
+            throw new UnsupportedOperationException("Immutable graph - insertEdge().");
+        }
+
+        @Override
+        public void insertEdges(E[] fromKeys, E[] toKeys, double[] weights) {
+            throw new UnsupportedOperationException("Immutable graph - insertEdges().");
+        }
+
+        @Override
+        public void deleteEdge(E fromKey, E toKey) {
+            throw new UnsupportedOperationException("Immutable graph - deleteEdge().");
+        }
+
+        @Override
+        public double retrieveEdge(E fromKey, E toKey) throws GraphException {
+            Vertex<E> from = find(root, fromKey);
+            if (from == null || find(root, toKey) == null)
+                throw new GraphException("Non-existent edge - retrieveEdge().");
+            int i = indexOfTarget(from, toKey);
+            if (i < 0)
+                throw new GraphException("Non-existent edge - retrieveEdge().");
+            return from.weights[i];
+        }
+
+        @Override
+        public E retrieveVertex(E key) throws GraphException {
+            Vertex<E> v = find(root, key);
+            if (v == null)
+                throw new GraphException("Non-existent vertex - retrieveVertex().");
+            return v.data;
+        }
+
+        @Override
+        public void bfsTraverse(Function func) {
+            freeze().bfsTraverse(func);
+        }
+
+        @Override
+        public void dfsTraverse(Function func) {
+            freeze().dfsTraverse(func);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return order == 0;
+        }
+
+        @Override
+        public long size() {
+            return order;
+        }
+
+        @Override
+        public boolean isVertex(E key) {
+            return find(root, key) != null;
+        }
+
+        @Override
+        public boolean isEdge(E fromKey, E toKey) {
+            Vertex<E> from = find(root, fromKey);
+            return from != null && indexOfTarget(from, toKey) >= 0;
+        }
+
+        @Override
+        public boolean isPath(E fromKey, E toKey) {
+            return freeze().isPath(fromKey, toKey);
+        }
+
+        @Override
+        public long countEdges() {
+            return edgeCount;
+        }
+
+        @Override
+        public long outDegree(E key) throws GraphException {
+            Vertex<E> v = find(root, key);
+            if (v == null)
+                throw new GraphException("Non-existent vertex - outDegree().");
+            return v.targets.length;
+        }
+
+        @Override
+        public long inDegree(E key) throws GraphException {
+            Vertex<E> v = find(root, key);
+            if (v == null)
+                throw new GraphException("Non-existent vertex - inDegree().");
+            return v.inDeg;
+        }
+    }
+
+    /*===> BEGIN: Persistent AVL tree <===*/
+
+    /**
+     * Gives the height of a subtree, 0 for an empty one
+     */
+    private static int height(Node<?> t) {
+        return t == null ? 0 : t.height;
+    }
+
+    /**
+     * Locates the record with the specified key
+     */
+    private static <E extends Comparable<E>> Vertex<E> find(Node<E> t, E key) {
+        while (t != null) {
+            int cmp = key.compareTo(t.vertex.data);
+            if (cmp < 0)
+                t = t.left;
+            else if (cmp > 0)
+                t = t.right;
+            else
+                return t.vertex;
+        }
+        return null;
+    }
+
+    /**
+     * Gives a tree holding v in place of the record with the same key,
+     * copying only the path to it
+     */
+    private static <E extends Comparable<E>> Node<E> put(Node<E> t, Vertex<E> v) {
+        if (t == null)
+            return new Node<>(v, null, null);
+        int cmp = v.data.compareTo(t.vertex.data);
+        if (cmp < 0)
+            return balance(t.vertex, put(t.left, v), t.right);
+        if (cmp > 0)
+            return balance(t.vertex, t.left, put(t.right, v));
+        return new Node<>(v, t.left, t.right);
+    }
+
+    /**
+     * Gives a tree without the record with the specified key
+     */
+    private static <E extends Comparable<E>> Node<E> remove(Node<E> t, E key) {
+        if (t == null)
+            return null;
+        int cmp = key.compareTo(t.vertex.data);
+        if (cmp < 0)
+            return balance(t.vertex, remove(t.left, key), t.right);
+        if (cmp > 0)
+            return balance(t.vertex, t.left, remove(t.right, key));
+        if (t.left == null)
+            return t.right;
+        if (t.right == null)
+            return t.left;
+        Node<E> min = t.right;
+        while (min.left != null)
+            min = min.left;
+        return balance(min.vertex, t.left, removeMin(t.right));
+    }
+
+    /**
+     * Gives a tree without its smallest record
+     */
+    private static <E> Node<E> removeMin(Node<E> t) {
+        if (t.left == null)
+            return t.right;
+        return balance(t.vertex, removeMin(t.left), t.right);
+    }
+
+    /**
+     * Builds a node from two subtrees whose heights differ by at most 2,
+     * rotating when they differ by 2
+     */
+    private static <E> Node<E> balance(Vertex<E> v, Node<E> left, Node<E> right) {
+        int hl = height(left);
+        int hr = height(right);
+        if (hl > hr + 1) {
+            if (height(left.left) >= height(left.right))
+                return new Node<>(left.vertex, left.left, new Node<>(v, left.right, right));
+            return new Node<>(left.right.vertex, new Node<>(left.vertex, left.left, left.right.left),
+                    new Node<>(v, left.right.right, right));
+        }
+        if (hr > hl + 1) {
+            if (height(right.right) >= height(right.left))
+                return new Node<>(right.vertex, new Node<>(v, left, right.left), right.right);
+            return new Node<>(right.left.vertex, new Node<>(v, left, right.left.left),
+                    new Node<>(right.vertex, right.left.right, right.right));
+        }
+        return new Node<>(v, left, right);
+    }
+
+    /**
+     * Appends the records of a subtree to out in key order
+     */
+    private static <E> void inorder(Node<E> t, ArrayList<Vertex<E>> out) {
+        if (t == null)
+            return;
+        inorder(t.left, out);
+        out.add(t.vertex);
+        inorder(t.right, out);
+    }
+
+    /*===> END: Persistent AVL tree <===*/
+
+    /**
+     * Gives the position of the out-edge of a record towards a key
+     */
+    private static <E extends Comparable<E>> int indexOfTarget(Vertex<E> from, E toKey) {
+        for (int i = 0; i < from.targets.length; i++)
+            if (toKey.compareTo(from.targets[i]) == 0)
+                return i;
+        return -1;
+    }
+
+    /*===> BEGIN: GraphAPI on the current version <===*/
+
+    @Override
+    public void insertVertex(E data) {
+        update(batch -> batch.insertVertex(data));
+    }
+
+    @Override
+    public void deleteVertex(E key) {
+        update(batch -> batch.deleteVertex(key));
+    }
+
+    @Override
+    public void insertEdge(E fromKey, E toKey, Double weight) {
+        update(batch -> batch.insertEdge(fromKey, toKey, weight));
+    }
+
+    @Override
+    public void insertEdges(E[] fromKeys, E[] toKeys, double[] weights) {
+        if (fromKeys.length != toKeys.length || fromKeys.length != weights.length)
+            throw new IllegalArgumentException("Batch arrays differ in length - insertEdges().");
+        update(batch -> {
+            for (int i = 0; i < fromKeys.length; i++)
+                batch.insertEdge(fromKeys[i], toKeys[i], weights[i]);
+        });
+    }
+
+    @Override
+    public void deleteEdge(E fromKey, E toKey) {
+        update(batch -> batch.deleteEdge(fromKey, toKey));
+    }
+
+    @Override
+    public double retrieveEdge(E fromKey, E toKey) throws GraphException {
+        return current.retrieveEdge(fromKey, toKey);
+    }
+
+    @Override
+    public E retrieveVertex(E key) throws GraphException {
+        return current.retrieveVertex(key);
+    }
+
+    @Override
+    public void bfsTraverse(Function func) {
+        current.bfsTraverse(func);
+    }
+
+    @Override
+    public void dfsTraverse(Function func) {
+        current.dfsTraverse(func);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return current.isEmpty();
+    }
+
+    @Override
+    public long size() {
+        return current.size();
+    }
+
+    @Override
+    public boolean isVertex(E key) {
+        return current.isVertex(key);
+    }
+
+    @Override
+    public boolean isEdge(E fromKey, E toKey) {
+        return current.isEdge(fromKey, toKey);
+    }
+
+    @Override
+    public boolean isPath(E fromKey, E toKey) {
+        return current.isPath(fromKey, toKey);
+    }
+
+    @Override
+    public long countEdges() {
+        return current.countEdges();
+    }
+
+    @Override
+    public long outDegree(E key) throws GraphException {
+        return current.outDegree(key);
+    }
+
+    @Override
+    public long inDegree(E key) throws GraphException {
+        return current.inDegree(key);
+    }
+
+    /*===> END: GraphAPI on the current version <===*/
+}
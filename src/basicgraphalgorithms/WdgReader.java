@@ -0,0 +1,369 @@
+package basicgraphalgorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a weighted digraph in the DIMACS-like .wdg text format:
+ * <pre>
+ *     p &lt;vertices&gt; &lt;edges&gt;
+ *     c &lt;comment&gt;
+ *     n &lt;key&gt; &lt;label&gt;
+ *     e &lt;from&gt; &lt;to&gt; &lt;weight&gt;
+ * </pre>
+ * The file is memory-mapped in windows that end on line boundaries and
+ * the records are decoded straight from the bytes, so the only objects
+ * created are the vertex labels. Numbers are decoded by hand; a weight
+ * whose decimal form cannot be converted exactly that way falls back to
+ * Double.parseDouble, so every weight equals what a Scanner would read.
+ *
+ * @author Duncan, Jordan Morris
+ * @since 10-21-2018
+ */
+public class WdgReader {
+    /**
+     * largest part of the file mapped at once
+     */
+    private static final int WINDOW_SIZE = 1 << 30;
+    /**
+     * exactly representable powers of ten
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22};
+    /**
+     * charset of the labels, the same one a FileReader would use
+     */
+    private static final Charset LABEL_CHARSET = Charset.defaultCharset();
+
+    /**
+     * Receives the records of a .wdg file in file order.
+     */
+    public interface Handler {
+        /**
+         * Receives a p record.
+         *
+         * @param vertexCount - the announced number of vertices.
+         * @param edgeCount   - the announced number of edges.
+         */
+        void header(int vertexCount, int edgeCount);
+
+        /**
+         * Receives an n record.
+         *
+         * @param key   - key of the vertex.
+         * @param label - the rest of the line after the key.
+         */
+        void vertex(int key, String label);
+
+        /**
+         * Receives an e record.
+         *
+         * @param fromKey - key of the originating vertex.
+         * @param toKey   - key of the destination vertex.
+         * @param weight  - weight of the edge.
+         */
+        void edge(int fromKey, int toKey, double weight);
+    }
+
+    /**
+     * the bytes being decoded
+     */
+    private final ByteBuffer buf;
+    /**
+     * position of the next byte to decode
+     */
+    private int pos;
+    /**
+     * end of the decoded range
+     */
+    private final int end;
+
+    /**
+     * Creates a decoder for a range of complete lines
+     */
+    private WdgReader(ByteBuffer buf, int start, int end) {
+        this.buf = buf;
+        this.pos = start;
+        this.end = end;
+    }
+
+    /**
+     * Reads the specified file
+     *
+     * @param filename the name of the .wdg file
+     * @param handler  receives the records
+     * @throws IOException when the file cannot be read or is malformed
+     */
+    public static void read(String filename, Handler handler) throws IOException {
+        read(Paths.get(filename), handler);
+    }
+
+    /**
+     * Reads the specified file
+     *
+     * @param file    the .wdg file
+     * @param handler receives the records
+     * @throws IOException when the file cannot be read or is malformed
+     */
+    public static void read(Path file, Handler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long base = 0;
+            while (base < size) {
+                int length = (int) Math.min(WINDOW_SIZE, size - base);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+                int limit = length;
+                if (base + length < size) {
+                  /* stop after the last complete line of the window */
+                    limit = lastLineEnd(window, length);
+                    if (limit == 0)
+                        throw new IOException("Line longer than " + WINDOW_SIZE + " bytes at offset " + base);
+                }
+                parse(window, 0, limit, handler);
+                base += limit;
+            }
+        }
+    }
+
+    /**
+     * Gives the position following the last newline of a buffer
+     *
+     * @param buf    a buffer
+     * @param length number of bytes of the buffer to search
+     * @return the position after the last newline, or 0 when there is none
+     */
+    static int lastLineEnd(ByteBuffer buf, int length) {
+        for (int i = length - 1; i >= 0; i--)
+            if (buf.get(i) == '\n')
+                return i + 1;
+        return 0;
+    }
+
+    /**
+     * Decodes the records of a range of complete lines
+     *
+     * @param buf     a buffer holding .wdg text
+     * @param start   position of the first byte of the range
+     * @param end     position following the last byte of the range
+     * @param handler receives the records
+     * @throws IOException when a record is malformed
+     */
+    static void parse(ByteBuffer buf, int start, int end, Handler handler) throws IOException {
+        new WdgReader(buf, start, end).parseLines(handler);
+    }
+
+    /**
+     * Decodes every line of the range
+     */
+    private void parseLines(Handler handler) throws IOException {
+        while (pos < end) {
+            skipBlanks();
+            if (pos >= end)
+                break;
+            byte b = buf.get(pos);
+            if (b == '\n' || b == '\r') {
+                pos++;
+                continue;
+            }
+          /* the first character of a token selects the record */
+            int tokenStart = pos;
+            skipToken();
+            switch (buf.get(tokenStart)) {
+                case 'p':
+                    int vertexCount = nextInt();
+                    int edgeCount = nextInt();
+                    handler.header(vertexCount, edgeCount);
+                    break;
+                case 'c':
+                    skipLine();
+                    break;
+                case 'n':
+                    int key = nextInt();
+                    handler.vertex(key, restOfLine());
+                    break;
+                case 'e':
+                    int fromKey = nextInt();
+                    int toKey = nextInt();
+                    handler.edge(fromKey, toKey, nextDouble());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Skips spaces and tabs, stopping at the end of the line
+     */
+    private void skipBlanks() {
+        while (pos < end) {
+            byte b = buf.get(pos);
+            if (b != ' ' && b != '\t' && b != '\f')
+                break;
+            pos++;
+        }
+    }
+
+    /**
+     * Skips to the first whitespace byte
+     */
+    private void skipToken() {
+        while (pos < end && !isWhitespace(buf.get(pos)))
+            pos++;
+    }
+
+    /**
+     * Skips past the end of the current line
+     */
+    private void skipLine() {
+        while (pos < end && buf.get(pos) != '\n')
+            pos++;
+        pos++;
+    }
+
+    /**
+     * Decodes the rest of the current line, without its line separator,
+     * and moves past it
+     */
+    private String restOfLine() {
+        int start = pos;
+        while (pos < end && buf.get(pos) != '\n')
+            pos++;
+        int stop = pos;
+        if (stop > start && buf.get(stop - 1) == '\r')
+            stop--;
+        pos++;
+        byte[] bytes = new byte[stop - start];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = buf.get(start + i);
+        return new String(bytes, LABEL_CHARSET);
+    }
+
+    /**
+     * Decodes the next token of the line as an int
+     */
+    private int nextInt() throws IOException {
+        skipBlanks();
+        int start = pos;
+        boolean negative = false;
+        if (pos < end && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+            negative = buf.get(pos) == '-';
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (pos < end) {
+            int d = buf.get(pos) - '0';
+            if (d < 0 || d > 9)
+                break;
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1)
+                throw malformed(start);
+            digits++;
+            pos++;
+        }
+        if (digits == 0 || (pos < end && !isWhitespace(buf.get(pos))))
+            throw malformed(start);
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE)
+            throw malformed(start);
+        return (int) value;
+    }
+
+    /**
+     * Decodes the next token of the line as a double
+     */
+    private double nextDouble() throws IOException {
+        skipBlanks();
+        int start = pos;
+        boolean negative = false;
+        if (pos < end && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+            negative = buf.get(pos) == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean exact = true;
+        boolean seenPoint = false;
+        while (pos < end) {
+            byte b = buf.get(pos);
+            if (b == '.' && !seenPoint) {
+                seenPoint = true;
+                pos++;
+                continue;
+            }
+            int d = b - '0';
+            if (d < 0 || d > 9)
+                break;
+            if (mantissa < 100000000000000000L) {
+                mantissa = mantissa * 10 + d;
+                if (seenPoint)
+                    scale--;
+            } else {
+                exact = false;
+                if (!seenPoint)
+                    scale++;
+            }
+            digits++;
+            pos++;
+        }
+        if (digits == 0)
+            throw malformed(start);
+        if (pos < end && (buf.get(pos) == 'e' || buf.get(pos) == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < end && (buf.get(pos) == '-' || buf.get(pos) == '+')) {
+                negativeExponent = buf.get(pos) == '-';
+                pos++;
+            }
+            int exponent = 0;
+            int exponentDigits = 0;
+            while (pos < end) {
+                int d = buf.get(pos) - '0';
+                if (d < 0 || d > 9)
+                    break;
+                if (exponent < 10000)
+                    exponent = exponent * 10 + d;
+                exponentDigits++;
+                pos++;
+            }
+            if (exponentDigits == 0)
+                throw malformed(start);
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (pos < end && !isWhitespace(buf.get(pos)))
+            throw malformed(start);
+      /* exact when the mantissa fits in 53 bits and 10^scale is exact */
+        if (exact && mantissa < (1L << 53) && scale >= -22 && scale <= 22) {
+            double value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+            return negative ? -value : value;
+        }
+        byte[] bytes = new byte[pos - start];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = buf.get(start + i);
+        return Double.parseDouble(new String(bytes, LABEL_CHARSET));
+    }
+
+    /**
+     * Determines whether a byte separates tokens
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    /**
+     * Reports a malformed number
+     */
+    private IOException malformed(int at) {
+        return new IOException("Malformed number at byte " + at + " of the mapped window");
+    }
+}